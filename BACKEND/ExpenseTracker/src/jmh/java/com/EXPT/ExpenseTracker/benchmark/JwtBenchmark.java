@@ -0,0 +1,81 @@
+package com.EXPT.ExpenseTracker.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.EXPT.ExpenseTracker.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Token signing and verification. {@code validateCached} is the steady state of
+ * JwtRequestFilter; {@code parseUncached} is the first request with a token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+	private final UserDetails alice = new User("alice", "x", List.of());
+	private final UserDetails bob = new User("bob", "x", List.of());
+
+	private JwtUtil cachingJwtUtil;
+	private JwtUtil uncachedJwtUtil;
+
+	private String aliceToken;
+	private String bobToken;
+	private boolean flip;
+
+	@Setup
+	public void setUp() {
+		cachingJwtUtil = create(10_000);
+		// a single slot alternately filled by two tokens: every parse misses
+		uncachedJwtUtil = create(1);
+		aliceToken = cachingJwtUtil.generateToken(alice);
+		bobToken = cachingJwtUtil.generateToken(bob);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return cachingJwtUtil.generateToken(alice);
+	}
+
+	@Benchmark
+	public Boolean validateCached() {
+		return cachingJwtUtil.validateToken(aliceToken, alice);
+	}
+
+	@Benchmark
+	public Claims parseUncached() {
+		flip = !flip;
+		return uncachedJwtUtil.parseToken(flip ? aliceToken : bobToken);
+	}
+
+	private static JwtUtil create(int cacheSize) {
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "benchmarkSecretKeyForJWTTokenGenerationAndValidation1");
+		ReflectionTestUtils.setField(jwtUtil, "JWT_EXPIRATION", 3_600_000L);
+		ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", cacheSize);
+		ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+		return jwtUtil;
+	}
+}
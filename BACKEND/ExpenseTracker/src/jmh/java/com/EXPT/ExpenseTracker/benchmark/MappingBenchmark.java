@@ -0,0 +1,128 @@
+package com.EXPT.ExpenseTracker.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.EXPT.ExpenseTracker.dto.GraphDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.dto.StatsDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.services.income.IncomeServiceImpl;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Entity to DTO mapping as done by the services after a write, and Jackson
+ * serialization of the stats and chart responses, for {@code size} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+	@Param({ "100", "10000" })
+	private int size;
+
+	private List<Expense> expenses;
+	private List<Income> incomes;
+
+	// the income mapper is a private helper, reached through a method handle
+	private MethodHandle incomeMapper;
+
+	private ObjectMapper objectMapper;
+	private GraphDTO graph;
+	private StatsDTO stats;
+
+	@Setup
+	public void setUp() throws ReflectiveOperationException {
+		expenses = new ArrayList<>(size);
+		incomes = new ArrayList<>(size);
+		LocalDate start = LocalDate.of(2024, 1, 1);
+		for (int i = 0; i < size; i++) {
+			Expense expense = new Expense();
+			expense.setId(i);
+			expense.setTitle("Expense " + i);
+			expense.setCategory("Food");
+			expense.setDescription("Weekly groceries");
+			expense.setDate(start.plusDays(i % 365));
+			expense.setAmount(i % 500);
+			expenses.add(expense);
+
+			Income income = new Income();
+			income.setId((long) i);
+			income.setTitle("Income " + i);
+			income.setCategory("Salary");
+			income.setDescription("Monthly salary");
+			income.setDate(start.plusDays(i % 365));
+			income.setAmount(1000 + i % 500);
+			incomes.add(income);
+		}
+
+		incomeMapper = privateMethod(IncomeServiceImpl.class, "mapToDTO", IncomeDTO.class, Income.class)
+				.bindTo(new IncomeServiceImpl());
+
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		graph = new GraphDTO();
+		graph.setExpenseList(expenses.stream().map(Expense::getExpenseDto).toList());
+		graph.setIncomeList(incomes.stream().map(Income::getIncomeDto).toList());
+		stats = new StatsDTO();
+		stats.setIncome(123456.0);
+		stats.setExpense(65432.0);
+		stats.setBalance(58024.0);
+		stats.setLatestIncome(incomes.get(0).getIncomeDto());
+		stats.setLatestExpense(expenses.get(0).getExpenseDto());
+	}
+
+	@Benchmark
+	public void expenseEntityToDto(Blackhole blackhole) {
+		for (Expense expense : expenses) {
+			blackhole.consume(expense.getExpenseDto());
+		}
+	}
+
+	@Benchmark
+	public void incomeServiceMapToDto(Blackhole blackhole) throws Throwable {
+		for (Income income : incomes) {
+			blackhole.consume((IncomeDTO) incomeMapper.invokeExact(income));
+		}
+	}
+
+	@Benchmark
+	public byte[] serializeGraph() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(graph);
+	}
+
+	@Benchmark
+	public byte[] serializeStats() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(stats);
+	}
+
+	private static MethodHandle privateMethod(Class<?> owner, String name, Class<?> returnType, Class<?> parameterType)
+			throws ReflectiveOperationException {
+		return MethodHandles.privateLookupIn(owner, MethodHandles.lookup())
+				.findVirtual(owner, name, MethodType.methodType(returnType, parameterType));
+	}
+}
@@ -0,0 +1,115 @@
+package com.EXPT.ExpenseTracker.benchmark;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.EXPT.ExpenseTracker.ExpenseTrackerApplication;
+import com.EXPT.ExpenseTracker.dto.StatsDTO;
+import com.EXPT.ExpenseTracker.services.stats.StatsService;
+
+/**
+ * GET /api/stats service path over one user's ledger of {@code rows} rows (half
+ * incomes, half expenses) in the in-memory H2 database of the test profile,
+ * for each stats.mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatsBenchmark {
+
+	private static final String USERNAME = "bench-user";
+
+	@Param({ "1000", "100000", "1000000" })
+	private int rows;
+
+	@Param({ "scan", "aggregate", "rollup" })
+	private String mode;
+
+	private ConfigurableApplicationContext context;
+
+	private StatsService statsService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+				.profiles("test")
+				.properties("server.port=0", "logging.level.root=WARN", "spring.main.banner-mode=off")
+				.run();
+		seed(context.getBean(JdbcTemplate.class), rows);
+
+		statsService = context.getBean(StatsService.class);
+		Object target = AopTestUtils.getTargetObject(statsService);
+		ReflectionTestUtils.setField(target, "statsMode", mode);
+
+		// JMH may call the benchmark from another thread than the one running setup
+		SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(USERNAME, null, List.of()));
+
+		// builds the rollup row outside the measurement
+		statsService.getStats();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+		context.close();
+	}
+
+	@Benchmark
+	public StatsDTO getStats() {
+		return statsService.getStats();
+	}
+
+	static long seed(JdbcTemplate jdbcTemplate, int rows) {
+		jdbcTemplate.update("INSERT INTO users (username, email, password, created_at, enabled) VALUES (?, ?, ?, CURRENT_TIMESTAMP, TRUE)",
+				USERNAME, USERNAME + "@example.com", "x");
+		Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, USERNAME);
+
+		SplittableRandom random = new SplittableRandom(42);
+		LocalDate start = LocalDate.of(2022, 1, 1);
+		for (String table : new String[] { "income", "expense" }) {
+			String sql = "INSERT INTO " + table + " (title, description, category, date, amount, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+			int remaining = rows / 2;
+			while (remaining > 0) {
+				int batch = Math.min(remaining, 5000);
+				List<Object[]> args = new ArrayList<>(batch);
+				for (int i = 0; i < batch; i++) {
+					args.add(new Object[] { table + " " + i, null, "Category " + random.nextInt(12),
+							Date.valueOf(start.plusDays(random.nextInt(3 * 365))), 1 + random.nextInt(10_000), userId });
+				}
+				jdbcTemplate.batchUpdate(sql, args);
+				remaining -= batch;
+			}
+		}
+		return userId;
+	}
+}
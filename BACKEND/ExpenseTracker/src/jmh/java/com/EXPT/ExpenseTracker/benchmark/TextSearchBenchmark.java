@@ -0,0 +1,112 @@
+package com.EXPT.ExpenseTracker.benchmark;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.EXPT.ExpenseTracker.ExpenseTrackerApplication;
+import com.EXPT.ExpenseTracker.dto.LedgerEntryDTO;
+import com.EXPT.ExpenseTracker.services.search.TextSearchService;
+
+/**
+ * GET /api/ledger/search service path over one user's ledger of {@code rows}
+ * expenses in the in-memory H2 database of the test profile. Titles are drawn
+ * from a small set of merchants, so "amazon" matches about a tenth of the rows
+ * and "uber ride" needs two posting lists intersected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TextSearchBenchmark {
+
+	private static final String USERNAME = "bench-user";
+
+	private static final String[] MERCHANTS = { "Amazon order", "Uber ride", "Uber eats", "Tesco groceries", "Netflix",
+			"Shell fuel", "Starbucks coffee", "Ikea furniture", "Apple store", "Deliveroo dinner" };
+
+	@Param({ "100000", "1000000" })
+	private int rows;
+
+	@Param({ "amazon", "amaz", "uber ride", "invoice 4711" })
+	private String query;
+
+	private ConfigurableApplicationContext context;
+
+	private TextSearchService textSearchService;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+				.profiles("test")
+				.properties("server.port=0", "logging.level.root=WARN", "spring.main.banner-mode=off")
+				.run();
+		seed(context.getBean(JdbcTemplate.class), rows);
+		textSearchService = context.getBean(TextSearchService.class);
+
+		// JMH may call the benchmark from another thread than the one running setup
+		SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(USERNAME, null, List.of()));
+
+		// builds the user's postings outside the measurement
+		textSearchService.search(query, null, 20);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+		context.close();
+	}
+
+	@Benchmark
+	public List<LedgerEntryDTO> search() {
+		return textSearchService.search(query, null, 20);
+	}
+
+	private static void seed(JdbcTemplate jdbcTemplate, int rows) {
+		jdbcTemplate.update("INSERT INTO users (username, email, password, created_at, enabled) VALUES (?, ?, ?, CURRENT_TIMESTAMP, TRUE)",
+				USERNAME, USERNAME + "@example.com", "x");
+		Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, USERNAME);
+
+		SplittableRandom random = new SplittableRandom(42);
+		LocalDate start = LocalDate.of(2015, 1, 1);
+		String sql = "INSERT INTO expense (title, description, category, date, amount, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+		int remaining = rows;
+		while (remaining > 0) {
+			int batch = Math.min(remaining, 5000);
+			List<Object[]> args = new ArrayList<>(batch);
+			for (int i = 0; i < batch; i++) {
+				args.add(new Object[] { MERCHANTS[random.nextInt(MERCHANTS.length)], "invoice " + random.nextInt(100_000),
+						"Category " + random.nextInt(12), Date.valueOf(start.plusDays(random.nextInt(10 * 365))),
+						1 + random.nextInt(10_000), userId });
+			}
+			jdbcTemplate.batchUpdate(sql, args);
+			remaining -= batch;
+		}
+	}
+}
@@ -0,0 +1,374 @@
+package com.EXPT.ExpenseTracker.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.EXPT.ExpenseTracker.ExpenseTrackerApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Boots the application on a random port against the in-memory H2 database of
+ * the test profile, seeds users with ledgers and drives a weighted mix of
+ * dashboard and CRUD calls. Run with {@code mvn -Ploadtest verify}; every
+ * setting is a system property, e.g. {@code -Dloadtest.concurrency=1000}:
+ * <ul>
+ * <li>loadtest.users (50), loadtest.rows (500 expenses and 500 incomes per user)</li>
+ * <li>loadtest.concurrency (100 clients), loadtest.warmup (10 s), loadtest.duration (30 s)</li>
+ * <li>loadtest.mix (operation:weight list, see {@link #DEFAULT_MIX})</li>
+ * </ul>
+ * Server-side settings such as spring.threads.virtual.enabled can be passed the
+ * same way. Prints throughput, p50/p95/p99 and SQL statements per request per
+ * operation, and writes them to target/loadtest-report.json.
+ */
+public class LoadTest {
+
+	static final String DEFAULT_MIX = "login:2,expenses:20,incomes:10,stats:30,chart:20,create:10,update:5,delete:3";
+
+	private static final String PASSWORD = "loadtest-password";
+	private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+	private final int users = Integer.getInteger("loadtest.users", 50);
+	private final int rows = Integer.getInteger("loadtest.rows", 500);
+	private final int concurrency = Integer.getInteger("loadtest.concurrency", 100);
+	private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+	private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+	private final Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private HttpClient httpClient;
+	private String baseUrl;
+
+	public static void main(String[] args) throws Exception {
+		new LoadTest().run();
+	}
+
+	void run() throws Exception {
+		StatementCounter statementCounter = new StatementCounter();
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(ExpenseTrackerApplication.class)
+				.profiles("test")
+				.initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(statementCounter))
+				.properties("server.port=0", "logging.level.root=WARN", "spring.main.banner-mode=off",
+						// closed explicitly below; a JVM shutdown hook would run after exec:java released the classpath
+						"logging.register-shutdown-hook=false")
+				.registerShutdownHook(false)
+				.run();
+		try {
+			baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+			System.out.printf("Seeding %d users with %d expenses and %d incomes each%n", users, rows, rows);
+			seed(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class).encode(PASSWORD));
+
+			System.out.println("Measuring SQL statements per request (sequential)");
+			Map<String, Double> statementsPerRequest = measureStatements(statementCounter);
+
+			System.out.printf("Warming up for %ds with %d clients%n", warmup.toSeconds(), concurrency);
+			drive(warmup, null);
+
+			System.out.printf("Running for %ds with %d clients, mix %s%n", duration.toSeconds(), concurrency, mix);
+			Map<String, Recorder> recorders = new LinkedHashMap<>();
+			mix.keySet().forEach(operation -> recorders.put(operation, new Recorder()));
+			long statementsBefore = statementCounter.count();
+			drive(duration, recorders);
+			long statements = statementCounter.count() - statementsBefore;
+
+			report(recorders, statementsPerRequest, statements);
+		} finally {
+			context.close();
+		}
+	}
+
+	private void seed(JdbcTemplate jdbcTemplate, String passwordHash) {
+		SplittableRandom random = new SplittableRandom(42);
+		LocalDate start = LocalDate.now().minusYears(2);
+		for (int u = 0; u < users; u++) {
+			String username = "load" + u;
+			jdbcTemplate.update("INSERT INTO users (username, email, password, created_at, enabled) VALUES (?, ?, ?, CURRENT_TIMESTAMP, TRUE)",
+					username, username + "@example.com", passwordHash);
+			Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+			for (String table : new String[] { "expense", "income" }) {
+				List<Object[]> args = new ArrayList<>(rows);
+				for (int i = 0; i < rows; i++) {
+					args.add(new Object[] { table + " " + i, null, "Category " + random.nextInt(12),
+							Date.valueOf(start.plusDays(random.nextInt(730))), 1 + random.nextInt(5000), userId });
+				}
+				jdbcTemplate.batchUpdate("INSERT INTO " + table + " (title, description, category, date, amount, user_id) VALUES (?, ?, ?, ?, ?, ?)", args);
+			}
+		}
+	}
+
+	private Map<String, Double> measureStatements(StatementCounter statementCounter) throws Exception {
+		Client client = new Client(users - 1);
+		client.login();
+		Map<String, Double> result = new LinkedHashMap<>();
+		int samples = 20;
+		for (String operation : mix.keySet()) {
+			long before = statementCounter.count();
+			for (int i = 0; i < samples; i++) {
+				client.execute(operation);
+			}
+			result.put(operation, (statementCounter.count() - before) / (double) samples);
+		}
+		return result;
+	}
+
+	private void drive(Duration runFor, Map<String, Recorder> recorders) throws Exception {
+		long deadline = System.nanoTime() + runFor.toNanos();
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+		try {
+			List<Future<?>> clients = new ArrayList<>();
+			for (int c = 0; c < concurrency; c++) {
+				int userIndex = c % users;
+				clients.add(executor.submit(() -> {
+					Client client = new Client(userIndex);
+					// a burst of logins can be shed with 429 by the hashing pool, so keep trying rather than run tokenless
+					while (!client.login() && System.nanoTime() < deadline) {
+						Thread.sleep(100);
+					}
+					while (System.nanoTime() < deadline) {
+						String operation = pick();
+						long start = System.nanoTime();
+						boolean ok;
+						try {
+							ok = client.execute(operation);
+						} catch (IOException e) {
+							ok = false;
+							client.lastStatus = -1;
+						}
+						if (recorders != null) {
+							recorders.get(operation).record(System.nanoTime() - start, ok, client.lastStatus);
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> client : clients) {
+				client.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String pick() {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		int roll = ThreadLocalRandom.current().nextInt(total);
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private void report(Map<String, Recorder> recorders, Map<String, Double> statementsPerRequest, long statements) throws IOException {
+		long totalRequests = recorders.values().stream().mapToLong(Recorder::count).sum();
+		double seconds = duration.toNanos() / 1e9;
+
+		System.out.printf("%n%-10s %9s %8s %10s %9s %9s %9s %12s%n", "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "stmts/req");
+		List<Map<String, Object>> operations = new ArrayList<>();
+		for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+			Recorder recorder = entry.getValue();
+			long[] latencies = recorder.sorted();
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("operation", entry.getKey());
+			row.put("requests", latencies.length);
+			row.put("errors", recorder.errors);
+			row.put("statuses", recorder.statuses());
+			row.put("throughput", latencies.length / seconds);
+			row.put("p50Ms", percentile(latencies, 50));
+			row.put("p95Ms", percentile(latencies, 95));
+			row.put("p99Ms", percentile(latencies, 99));
+			row.put("statementsPerRequest", statementsPerRequest.get(entry.getKey()));
+			operations.add(row);
+			System.out.printf("%-10s %9d %8d %10.1f %9.1f %9.1f %9.1f %12.1f%n", entry.getKey(), latencies.length, recorder.errors,
+					latencies.length / seconds, percentile(latencies, 50), percentile(latencies, 95), percentile(latencies, 99),
+					statementsPerRequest.get(entry.getKey()));
+		}
+		long[] all = recorders.values().stream().flatMapToLong(recorder -> Arrays.stream(recorder.sorted())).sorted().toArray();
+		recorders.forEach((operation, recorder) -> {
+			if (recorder.errors > 0) {
+				System.out.println("  " + operation + " statuses: " + recorder.statuses() + " (-1 = client timeout or I/O error)");
+			}
+		});
+		System.out.printf("%-10s %9d %8s %10.1f %9.1f %9.1f %9.1f %12.1f%n", "total", totalRequests, "",
+				totalRequests / seconds, percentile(all, 50), percentile(all, 95), percentile(all, 99),
+				totalRequests == 0 ? 0.0 : statements / (double) totalRequests);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("users", users);
+		report.put("rowsPerLedger", rows);
+		report.put("concurrency", concurrency);
+		report.put("durationSeconds", duration.toSeconds());
+		report.put("virtualThreads", Boolean.getBoolean("spring.threads.virtual.enabled"));
+		report.put("throughput", totalRequests / seconds);
+		report.put("p50Ms", percentile(all, 50));
+		report.put("p95Ms", percentile(all, 95));
+		report.put("p99Ms", percentile(all, 99));
+		report.put("statementsPerRequest", totalRequests == 0 ? 0.0 : statements / (double) totalRequests);
+		report.put("operations", operations);
+		Path output = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+		Files.createDirectories(output.toAbsolutePath().getParent());
+		objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+		System.out.println("Report written to " + output);
+	}
+
+	private static double percentile(long[] sortedNanos, int percentile) {
+		if (sortedNanos.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+		return sortedNanos[Math.max(0, index)] / 1e6;
+	}
+
+	private static Map<String, Integer> parseMix(String value) {
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		for (String part : value.split(",")) {
+			String[] pair = part.trim().split(":");
+			int weight = Integer.parseInt(pair[1].trim());
+			if (weight > 0) {
+				mix.put(pair[0].trim(), weight);
+			}
+		}
+		return mix;
+	}
+
+	/** One simulated dashboard user with its own token and the expenses it created. */
+	private class Client {
+
+		private final String username;
+		private final List<Long> createdIds = new ArrayList<>();
+		private String token;
+		private int lastStatus;
+
+		Client(int userIndex) {
+			this.username = "load" + userIndex;
+		}
+
+		boolean login() throws Exception {
+			HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(
+							objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD)))));
+			if (response.statusCode() == 200) {
+				token = objectMapper.readTree(response.body()).get("token").asText();
+				return true;
+			}
+			return false;
+		}
+
+		boolean execute(String operation) throws Exception {
+			return switch (operation) {
+				case "login" -> login();
+				case "expenses" -> ok(get("/api/expense/all"));
+				case "incomes" -> ok(get("/api/income/all"));
+				case "stats" -> ok(get("/api/stats"));
+				case "chart" -> ok(get("/api/stats/chart"));
+				case "create" -> create();
+				case "update" -> createdIds.isEmpty() ? create() : ok(send(authorized("/api/expense/" + createdIds.get(createdIds.size() - 1))
+						.header("Content-Type", "application/json")
+						.PUT(HttpRequest.BodyPublishers.ofString(expenseJson()))));
+				case "delete" -> createdIds.isEmpty() ? create() : ok(send(authorized("/api/expense/" + createdIds.remove(createdIds.size() - 1))
+						.DELETE()));
+				default -> throw new IllegalArgumentException("Unknown operation " + operation);
+			};
+		}
+
+		private boolean create() throws Exception {
+			HttpResponse<String> response = send(authorized("/api/expense")
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(expenseJson())));
+			Matcher matcher = ID.matcher(response.body());
+			if (ok(response) && matcher.find()) {
+				createdIds.add(Long.parseLong(matcher.group(1)));
+				return true;
+			}
+			return false;
+		}
+
+		private String expenseJson() {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			return "{\"title\":\"Load test\",\"category\":\"Category " + random.nextInt(12) + "\",\"amount\":" + (1 + random.nextInt(5000))
+					+ ",\"date\":\"" + LocalDate.now().minusDays(random.nextInt(60)) + "\"}";
+		}
+
+		private HttpResponse<String> get(String path) throws Exception {
+			return send(authorized(path).GET());
+		}
+
+		private HttpRequest.Builder authorized(String path) {
+			return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+		}
+
+		private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+			HttpResponse<String> response = httpClient.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.ofString());
+			lastStatus = response.statusCode();
+			return response;
+		}
+
+		private boolean ok(HttpResponse<String> response) {
+			return response.statusCode() < 400;
+		}
+	}
+
+	/** Latencies of one operation across all clients. */
+	private static class Recorder {
+
+		private long[] nanos = new long[1024];
+		private int size;
+		private long errors;
+		private final Map<Integer, Long> statuses = new TreeMap<>();
+
+		synchronized void record(long latencyNanos, boolean ok, int status) {
+			statuses.merge(status, 1L, Long::sum);
+			if (size == nanos.length) {
+				nanos = Arrays.copyOf(nanos, size * 2);
+			}
+			nanos[size++] = latencyNanos;
+			if (!ok) {
+				errors++;
+			}
+		}
+
+		synchronized Map<Integer, Long> statuses() {
+			return new TreeMap<>(statuses);
+		}
+
+		synchronized long count() {
+			return size;
+		}
+
+		synchronized long[] sorted() {
+			long[] copy = Arrays.copyOf(nanos, size);
+			Arrays.sort(copy);
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.EXPT.ExpenseTracker.loadtest;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Wraps the application's DataSource and counts every statement prepared or
+ * created on its connections, whether it comes from Hibernate or JdbcTemplate.
+ */
+class StatementCounter implements BeanPostProcessor {
+
+	private final LongAdder statements = new LongAdder();
+
+	long count() {
+		return statements.sum();
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource) {
+			return proxy(DataSource.class, dataSource, (target, method, args) -> {
+				Object result = invoke(target, method, args);
+				return result instanceof Connection connection ? countingConnection(connection) : result;
+			});
+		}
+		return bean;
+	}
+
+	private Connection countingConnection(Connection connection) {
+		return proxy(Connection.class, connection, (target, method, args) -> {
+			String name = method.getName();
+			if (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement")) {
+				statements.increment();
+			}
+			return invoke(target, method, args);
+		});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, T target, TargetHandler handler) {
+		InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocationHandler);
+	}
+
+	private interface TargetHandler {
+		Object invoke(Object target, Method method, Object[] args) throws Throwable;
+	}
+}
@@ -0,0 +1,99 @@
+package com.EXPT.ExpenseTracker.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests in flight. On platform threads Tomcat's pool already
+ * does this, but with virtual threads every connection gets its own thread and the
+ * excess would just pile up waiting for a JDBC connection until Hikari times out.
+ * A Semaphore parks virtual threads without pinning their carrier.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // -1 = automatic: 2x the DB pool with virtual threads, unlimited otherwise; 0 = unlimited
+    @Value("${concurrency.max-in-flight:-1}")
+    private int maxInFlight;
+
+    @Value("${concurrency.acquire-timeout:PT2S}")
+    private Duration acquireTimeout;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    private Semaphore permits;
+
+    private int limit;
+
+    @PostConstruct
+    void init() {
+        // with open-in-view a request keeps its connection once it has one, so allow
+        // roughly one request waiting per request holding a connection
+        limit = maxInFlight >= 0 ? maxInFlight : (virtualThreads ? poolSize * 2 : 0);
+        permits = limit > 0 ? new Semaphore(limit) : null;
+        if (limit > 0) {
+            log.info("Limiting requests in flight to {}", limit);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (permits == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.debug("Rejected {} {}: {} requests in flight", request.getMethod(), request.getRequestURI(), limit);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server busy, please try again shortly\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return permits == null ? 0 : limit - permits.availablePermits();
+    }
+}
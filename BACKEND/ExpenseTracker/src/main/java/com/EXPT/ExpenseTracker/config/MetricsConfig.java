@@ -0,0 +1,101 @@
+package com.EXPT.ExpenseTracker.config;
+
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerCacheService;
+import com.EXPT.ExpenseTracker.util.JwtUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics that Spring Boot doesn't provide on its own. Boot already times every
+ * request (http.server.requests), every repository call
+ * (spring.data.repository.invocations) and the Hikari pool (hikaricp.*).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheAndLimitMetrics(CustomUserDetailsService userDetailsService, JwtUtil jwtUtil,
+            ConcurrencyLimitFilter concurrencyLimitFilter, LedgerCacheService ledgerCacheService) {
+        return registry -> {
+            bindCache(registry, "principal", userDetailsService, CustomUserDetailsService::getPrincipalCacheSize,
+                    CustomUserDetailsService::getPrincipalCacheHits, CustomUserDetailsService::getPrincipalCacheMisses);
+            bindCache(registry, "jwt.verified", jwtUtil, JwtUtil::getVerifiedCacheSize,
+                    JwtUtil::getVerifiedCacheHits, JwtUtil::getVerifiedCacheMisses);
+            bindCache(registry, "ledger", ledgerCacheService, LedgerCacheService::getUserCount,
+                    LedgerCacheService::getHitCount, LedgerCacheService::getMissCount);
+            Gauge.builder("cache.ledger.estimated.bytes", ledgerCacheService, LedgerCacheService::getEstimatedBytes)
+                    .baseUnit("bytes").register(registry);
+            Gauge.builder("http.server.requests.in.flight", concurrencyLimitFilter, ConcurrencyLimitFilter::getInFlight)
+                    .register(registry);
+        };
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String name, T source, ToDoubleFunction<T> size,
+            ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+        Gauge.builder("cache.size", source, size).tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.gets", source, hits).tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", source, misses).tag("cache", name).tag("result", "miss").register(registry);
+    }
+
+    /**
+     * Records how many rows each repository method returned
+     * (spring.data.repository.rows), next to Boot's per-method timers.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    rowCounter(meterRegistry, information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor rowCounter(ObjectProvider<MeterRegistry> meterRegistry, String repository) {
+        return invocation -> {
+            Object result = invocation.proceed();
+            long rows = rowCount(result);
+            if (rows >= 0) {
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null) {
+                    registry.summary("spring.data.repository.rows",
+                            "repository", repository, "method", invocation.getMethod().getName()).record(rows);
+                }
+            }
+            return result;
+        };
+    }
+
+    // -1 for results that aren't rows (counts, sums, void) or are consumed lazily (Stream)
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
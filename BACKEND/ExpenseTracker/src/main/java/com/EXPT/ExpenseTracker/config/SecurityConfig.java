@@ -2,8 +2,12 @@ package com.EXPT.ExpenseTracker.config;
 
 import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -30,9 +34,16 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private Environment environment;
+
+    // Raising this rehashes existing passwords on their next successful login
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -53,10 +64,16 @@ public class SecurityConfig {
         http
             .cors().and()
             .csrf().disable()
-            .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/api/auth/**").permitAll()  // Allow login/signup without token
-                .anyRequest().authenticated()  // All other requests need token
-            )
+            .authorizeHttpRequests(auth -> {
+                auth.requestMatchers("/api/auth/**").permitAll();  // Allow login/signup without token
+                // Health and the scrape are open on the management server only (management.server.port,
+                // bound to localhost); the matcher never matches on the API port. Should management
+                // share the API port, actuator needs a token like everything else.
+                if (ManagementPortType.get(environment) == ManagementPortType.DIFFERENT) {
+                    auth.requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll();
+                }
+                auth.anyRequest().authenticated();  // All other requests need token
+            })
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
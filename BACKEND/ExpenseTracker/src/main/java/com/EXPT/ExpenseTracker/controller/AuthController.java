@@ -6,27 +6,30 @@ import com.EXPT.ExpenseTracker.dto.SignupRequest;
 import com.EXPT.ExpenseTracker.entity.User;
 import com.EXPT.ExpenseTracker.repository.UserRepository;
 import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.password.PasswordHashingRejectedException;
+import com.EXPT.ExpenseTracker.services.password.PasswordHashingService;
+import com.EXPT.ExpenseTracker.services.signup.SignupPrecheck;
 import com.EXPT.ExpenseTracker.util.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin("*")
 public class AuthController {
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
@@ -34,24 +37,31 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private SignupPrecheck signupPrecheck;
+
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@RequestBody SignupRequest signupRequest) {
-        System.out.println("=== SIGNUP REQUEST ===");
-        System.out.println("Username: " + signupRequest.getUsername());
-        System.out.println("Email: " + signupRequest.getEmail());
+        // Never log passwords, raw or encoded
+        log.debug("Signup request for username={}", signupRequest.getUsername());
         
-        // Check if username already exists
-        if (userRepository.existsByUsername(signupRequest.getUsername())) {
+        // The unique constraints are the real check. The Bloom filters only save the
+        // password hash for likely duplicates: a miss skips the lookup entirely, a hit
+        // is confirmed first so a false positive never rejects a free username
+        if (signupPrecheck.usernameMayBeTaken(signupRequest.getUsername())
+                && userRepository.existsByUsername(signupRequest.getUsername())) {
+            log.debug("Signup rejected, username taken: {}", signupRequest.getUsername());
             return ResponseEntity.badRequest().body(Map.of("error", "Username already exists"));
         }
 
-        // Check if email already exists
-        if (userRepository.existsByEmail(signupRequest.getEmail())) {
+        if (signupPrecheck.emailMayBeTaken(signupRequest.getEmail())
+                && userRepository.existsByEmail(signupRequest.getEmail())) {
+            log.debug("Signup rejected, email taken for username={}", signupRequest.getUsername());
             return ResponseEntity.badRequest().body(Map.of("error", "Email already exists"));
         }
 
@@ -62,59 +72,67 @@ public class AuthController {
         user.setFullName(signupRequest.getFullName());
         
         // Encode password
-        String encodedPassword = passwordEncoder.encode(signupRequest.getPassword());
-        user.setPassword(encodedPassword);
-        
-        System.out.println("Raw password: " + signupRequest.getPassword());
-        System.out.println("Encoded password: " + encodedPassword);
+        try {
+            user.setPassword(passwordHashingService.encode(signupRequest.getPassword()));
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
+        }
 
-        User savedUser = userRepository.save(user);
-        System.out.println("User saved with ID: " + savedUser.getId());
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            signupPrecheck.recordTaken(signupRequest.getUsername(), signupRequest.getEmail());
+            return duplicateSignup(e, signupRequest);
+        }
+        signupPrecheck.recordTaken(savedUser.getUsername(), savedUser.getEmail());
+        userDetailsService.evictUser(savedUser.getUsername());
+        log.info("User registered: id={}, username={}", savedUser.getId(), savedUser.getUsername());
 
         return ResponseEntity.ok(Map.of("message", "User registered successfully"));
     }
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        System.out.println("=== LOGIN REQUEST ===");
-        System.out.println("Username: " + loginRequest.getUsername());
+        log.debug("Login request for username={}", loginRequest.getUsername());
         
-        // Check if user exists
-        if (!userRepository.existsByUsername(loginRequest.getUsername())) {
-            System.out.println("User not found: " + loginRequest.getUsername());
+        // One query and one BCrypt verification; going through the AuthenticationManager
+        // as well would load the user and hash the password a second time
+        Optional<User> optionalUser = userRepository.findByUsername(loginRequest.getUsername());
+        if (optionalUser.isEmpty()) {
+            log.info("Login failed, unknown username={}", loginRequest.getUsername());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("error", "User not found"));
         }
+        User user = optionalUser.get();
         
-        // Get user from database
-        User user = userRepository.findByUsername(loginRequest.getUsername()).get();
-        System.out.println("User found in DB: " + user.getUsername());
-        System.out.println("Stored password: " + user.getPassword());
-        
-        // Test password match
-        boolean passwordMatches = passwordEncoder.matches(loginRequest.getPassword(), user.getPassword());
-        System.out.println("Password matches: " + passwordMatches);
-        
+        boolean passwordMatches;
+        try {
+            passwordMatches = passwordHashingService.matches(loginRequest.getPassword(), user.getPassword());
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e);
+        }
         if (!passwordMatches) {
+            log.info("Login failed, bad password for username={}", user.getUsername());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("error", "Invalid password"));
         }
-        
-        try {
-            authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.getUsername(),
-                    loginRequest.getPassword()
-                )
-            );
-            System.out.println("Authentication successful");
-        } catch (BadCredentialsException e) {
-            System.out.println("Authentication failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(Map.of("error", "Invalid username or password"));
+
+        // Stored hash is weaker than security.bcrypt.strength: rehash while we have the raw password
+        if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+            try {
+                user.setPassword(passwordHashingService.encode(loginRequest.getPassword()));
+                user = userRepository.save(user);
+                userDetailsService.evictUser(user.getUsername());
+                log.info("Rehashed password for user id={}", user.getId());
+            } catch (PasswordHashingRejectedException e) {
+                // not worth failing the login over, the next one will retry
+                log.debug("Skipped password rehash for user id={}: {}", user.getId(), e.getMessage());
+            }
         }
 
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
+        // Token comes from the row we already have; this also warms the principal cache
+        final UserDetails userDetails = userDetailsService.cacheUser(user);
         final String jwt = jwtUtil.generateToken(userDetails);
 
         AuthResponse response = new AuthResponse(
@@ -124,7 +142,40 @@ public class AuthController {
             user.getFullName()
         );
 
-        System.out.println("Login successful, returning token");
+        log.debug("Login succeeded for username={}", user.getUsername());
         return ResponseEntity.ok(response);
     }
+
+    // Maps a unique-constraint violation back to the error the exists checks used to return
+    private ResponseEntity<?> duplicateSignup(DataIntegrityViolationException e, SignupRequest signupRequest) {
+        String error;
+        if (violates(e, User.UK_EMAIL)) {
+            error = "Email already exists";
+        } else if (violates(e, User.UK_USERNAME)) {
+            error = "Username already exists";
+        } else if (userRepository.existsByUsername(signupRequest.getUsername())) {
+            // constraint created under another name (older schema)
+            error = "Username already exists";
+        } else if (userRepository.existsByEmail(signupRequest.getEmail())) {
+            error = "Email already exists";
+        } else {
+            throw e;
+        }
+        log.debug("Signup rejected by constraint for username={}: {}", signupRequest.getUsername(), error);
+        return ResponseEntity.badRequest().body(Map.of("error", error));
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraintName) {
+        String name = e.getCause() instanceof ConstraintViolationException violation ? violation.getConstraintName() : null;
+        String text = name != null ? name : e.getMostSpecificCause().getMessage();
+        return text != null && text.toLowerCase(Locale.ROOT).contains(constraintName);
+    }
+
+    // Hashing pool is saturated: fail fast instead of tying up more request threads
+    private ResponseEntity<?> tooManyRequests(PasswordHashingRejectedException e) {
+        log.warn("Auth request rejected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(Map.of("error", "Too many requests, please try again shortly"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.EXPT.ExpenseTracker.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Shared response setup for the read endpoints that support If-None-Match.
+ * Callers check {@code WebRequest.checkNotModified(etag)} before running any query
+ * and return null when it answers 304.
+ */
+final class ConditionalSupport {
+
+	// Spring Security's default is no-store, which would stop browsers from ever sending If-None-Match
+	private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+	private ConditionalSupport() {
+	}
+
+	static ResponseEntity<Object> ok(Object body) {
+		return ResponseEntity.ok().cacheControl(REVALIDATE).body(body);
+	}
+}
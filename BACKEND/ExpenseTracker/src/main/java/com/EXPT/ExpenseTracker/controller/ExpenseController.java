@@ -1,20 +1,33 @@
 package com.EXPT.ExpenseTracker.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // ADDED
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
-import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.repository.LedgerSearch;
 import com.EXPT.ExpenseTracker.services.expense.ExpenseService;
+import com.EXPT.ExpenseTracker.services.export.ExportService;
+import com.EXPT.ExpenseTracker.services.importer.ImportService;
+import com.EXPT.ExpenseTracker.services.version.DataVersionService;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+import com.EXPT.ExpenseTracker.util.LedgerSort;
+import com.EXPT.ExpenseTracker.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
-// ADD THIS IMPORT FOR LISTS
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Map;
 
 
 @RestController
@@ -25,45 +38,115 @@ public class ExpenseController {
 
 	
 	private final ExpenseService expenseService;
-    
-    // NEW: Helper method to map Entity to DTO
-    private ExpenseDTO mapToDTO(Expense expense) {
-        ExpenseDTO dto = new ExpenseDTO();
-        dto.setId(expense.getId());
-        dto.setTitle(expense.getTitle());
-        dto.setAmount(expense.getAmount());
-        dto.setDate(expense.getDate());
-        dto.setCategory(expense.getCategory());
-        dto.setDescription(expense.getDescription());
-        return dto;
-    }
+	
+	private final ObjectMapper objectMapper;
+	
+	private final ImportService importService;
+	
+	private final ExportService exportService;
+	
+	private final DataVersionService dataVersionService;
 	
 	@PostMapping
 	public ResponseEntity<?> postExpense(@RequestBody ExpenseDTO dto) {
-        // Post is usually fine because the entity is fresh/managed
-		Expense createdExpense = expenseService.postExpense(dto); 
+		ExpenseDTO createdExpense = expenseService.postExpense(dto); 
 		if (createdExpense != null) {
-            // Return DTO to avoid serialization error even here
-            return ResponseEntity.status(HttpStatus.CREATED).body(mapToDTO(createdExpense)); 
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdExpense); 
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 	}
 	
+	// Bulk import: the request body is a text/csv or application/x-ndjson stream of expenses
+	@PostMapping(value = "/import", consumes = { "text/csv", NdjsonWriter.CONTENT_TYPE })
+	public ResponseEntity<?> importExpenses(HttpServletRequest request) throws IOException {
+		try {
+			LedgerFormat format = LedgerFormat.fromContentType(request.getContentType());
+			return ResponseEntity.ok(importService.importLedger(LedgerKind.EXPENSE, format, request.getInputStream()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
+	}
+	
+	// Full download of the user's expenses, oldest first: ?format=csv|ndjson&gzip=true
+	@GetMapping("/export")
+	public void exportExpenses(@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(defaultValue = "false") boolean gzip,
+			HttpServletResponse response) throws IOException {
+		LedgerFormat ledgerFormat;
+		try {
+			ledgerFormat = LedgerFormat.fromName(format);
+		} catch (IllegalArgumentException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		}
+		try (OutputStream out = ExportSupport.openDownload(response, "expenses", ledgerFormat, gzip)) {
+			exportService.exportLedger(LedgerKind.EXPENSE, ledgerFormat, out);
+		}
+	}
+	
 	@GetMapping("/all")
-	public ResponseEntity<?> getAllExpenses() {
-        // Since service returns List<Expense>, we map to List<ExpenseDTO>
-		List<Expense> expenses = expenseService.getAllExpenses();
-        List<ExpenseDTO> dtos = expenses.stream().map(this::mapToDTO).collect(Collectors.toList());
-		return ResponseEntity.ok(dtos);
+	public ResponseEntity<?> getAllExpenses(@RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String cursor,
+			WebRequest webRequest) {
+        // Nothing changed since the client's copy: answer 304 before running any query
+        if (webRequest.checkNotModified(dataVersionService.currentETag(null))) {
+            return null;
+        }
+        // Paged mode: ?limit=N, then ?limit=N&cursor=<nextCursor> for the following pages
+        if (limit != null || cursor != null) {
+            try {
+                return ConditionalSupport.ok(expenseService.getExpensePage(cursor, limit != null ? limit : 50));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
+		return ConditionalSupport.ok(expenseService.getAllExpenses());
+	}
+	
+	// Server-side filtering instead of downloading /all: every parameter is optional and they
+	// combine with AND. ?category=&minAmount=&maxAmount=&from=&to=&q=&sort=date|amount
+	// &order=desc|asc&limit=N, then &cursor=<nextCursor> (with the same filters) for the next page
+	@GetMapping("/search")
+	public ResponseEntity<?> searchExpenses(@RequestParam(required = false) String category,
+			@RequestParam(required = false) Integer minAmount,
+			@RequestParam(required = false) Integer maxAmount,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String q,
+			@RequestParam(defaultValue = "date") String sort,
+			@RequestParam(defaultValue = "desc") String order,
+			@RequestParam(defaultValue = "50") int limit,
+			@RequestParam(required = false) String cursor,
+			WebRequest webRequest) {
+		if (webRequest.checkNotModified(dataVersionService.currentETag(null))) {
+			return null;
+		}
+		try {
+			if (!"desc".equalsIgnoreCase(order) && !"asc".equalsIgnoreCase(order)) {
+				throw new IllegalArgumentException("Unsupported order: " + order);
+			}
+			LedgerSearch search = new LedgerSearch(category, minAmount, maxAmount, from, to, q,
+					LedgerSort.fromName(sort), "desc".equalsIgnoreCase(order));
+			return ConditionalSupport.ok(expenseService.searchExpenses(search, cursor, limit));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
+	}
+	
+	// Streams every expense as NDJSON without building the full list in memory
+	@GetMapping(value = "/all", params = "stream=true")
+	public void streamAllExpenses(HttpServletResponse response) throws IOException {
+		response.setContentType(NdjsonWriter.CONTENT_TYPE);
+		try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+			expenseService.streamAllExpenses(writer::write);
+		}
 	}
 	
 	@GetMapping("/{id}")
 	public ResponseEntity<?> getExpenseById(@PathVariable Long id) {
 		try {
-            // Service returns Expense, map to DTO
-            Expense expense = expenseService.getExpenseById(id);
-			return ResponseEntity.ok(mapToDTO(expense));
+			return ResponseEntity.ok(expenseService.getExpenseById(id));
 		} catch (EntityNotFoundException e) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (AccessDeniedException e) { // Handling security exception
@@ -76,9 +159,7 @@ public class ExpenseController {
 	@PutMapping("/{id}")
 	public ResponseEntity<?> updateExpense(@PathVariable Long id, @RequestBody ExpenseDTO dto) {
         try {
-            // Service returns Expense, map to DTO
-            Expense updatedExpense = expenseService.updateExpense(id, dto);
-            return ResponseEntity.ok(mapToDTO(updatedExpense)); // <--- MAP TO DTO HERE
+            return ResponseEntity.ok(expenseService.updateExpense(id, dto));
         } catch (EntityNotFoundException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
         } catch (AccessDeniedException e) { // Handling security exception
@@ -0,0 +1,33 @@
+package com.EXPT.ExpenseTracker.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Shared response setup for the ledger export endpoints.
+ */
+final class ExportSupport {
+
+	private ExportSupport() {
+	}
+
+	/** Sets download headers and returns the (optionally gzip-encoded) body stream. */
+	static OutputStream openDownload(HttpServletResponse response, String baseName, LedgerFormat format, boolean gzip)
+			throws IOException {
+		response.setContentType(format.getContentType());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"" + baseName + "." + format.getExtension() + "\"");
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+			return new GZIPOutputStream(response.getOutputStream(), 8192);
+		}
+		return response.getOutputStream();
+	}
+}
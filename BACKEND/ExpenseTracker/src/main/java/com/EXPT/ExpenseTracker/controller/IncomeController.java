@@ -1,7 +1,9 @@
 package com.EXPT.ExpenseTracker.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,15 +12,32 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.EXPT.ExpenseTracker.dto.IncomeDTO;
-import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.repository.LedgerSearch;
+import com.EXPT.ExpenseTracker.services.export.ExportService;
+import com.EXPT.ExpenseTracker.services.importer.ImportService;
 import com.EXPT.ExpenseTracker.services.income.IncomeService;
+import com.EXPT.ExpenseTracker.services.version.DataVersionService;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+import com.EXPT.ExpenseTracker.util.LedgerSort;
+import com.EXPT.ExpenseTracker.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/income")
 @RequiredArgsConstructor
@@ -26,9 +45,17 @@ import lombok.RequiredArgsConstructor;
 public class IncomeController {
 	private final IncomeService incomeService;
 	
+	private final ObjectMapper objectMapper;
+	
+	private final ImportService importService;
+	
+	private final ExportService exportService;
+	
+	private final DataVersionService dataVersionService;
+	
 	@PostMapping
 	public ResponseEntity<?> postIncome(@RequestBody IncomeDTO incomeDTO){
-		Income createdIncome = incomeService.postIncome(incomeDTO);
+		IncomeDTO createdIncome = incomeService.postIncome(incomeDTO);
 		if (createdIncome != null) {
 			return ResponseEntity.status(HttpStatus.CREATED).body(createdIncome);
 		} else {
@@ -37,19 +64,103 @@ public class IncomeController {
 	}
 	
 	
+	// Bulk import: the request body is a text/csv or application/x-ndjson stream of incomes
+	@PostMapping(value = "/import", consumes = { "text/csv", NdjsonWriter.CONTENT_TYPE })
+	public ResponseEntity<?> importIncomes(HttpServletRequest request) throws IOException {
+		try {
+			LedgerFormat format = LedgerFormat.fromContentType(request.getContentType());
+			return ResponseEntity.ok(importService.importLedger(LedgerKind.INCOME, format, request.getInputStream()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
+	}
+	
+	
+	// Full download of the user's incomes, oldest first: ?format=csv|ndjson&gzip=true
+	@GetMapping("/export")
+	public void exportIncomes(@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(defaultValue = "false") boolean gzip,
+			HttpServletResponse response) throws IOException {
+		LedgerFormat ledgerFormat;
+		try {
+			ledgerFormat = LedgerFormat.fromName(format);
+		} catch (IllegalArgumentException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		}
+		try (OutputStream out = ExportSupport.openDownload(response, "incomes", ledgerFormat, gzip)) {
+			exportService.exportLedger(LedgerKind.INCOME, ledgerFormat, out);
+		}
+	}
+	
 	@GetMapping("/all")
-	public ResponseEntity<?> getAllIncomes() {
-		return ResponseEntity.ok(incomeService.getAllIncomes());
+	public ResponseEntity<?> getAllIncomes(@RequestParam(required = false) Integer limit,
+			@RequestParam(required = false) String cursor,
+			WebRequest webRequest) {
+		// Nothing changed since the client's copy: answer 304 before running any query
+		if (webRequest.checkNotModified(dataVersionService.currentETag(null))) {
+			return null;
+		}
+		// Paged mode: ?limit=N, then ?limit=N&cursor=<nextCursor> for the following pages
+		if (limit != null || cursor != null) {
+			try {
+				return ConditionalSupport.ok(incomeService.getIncomePage(cursor, limit != null ? limit : 50));
+			} catch (IllegalArgumentException e) {
+				return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+			}
+		}
+		return ConditionalSupport.ok(incomeService.getAllIncomes());
+	}
+	
+	// Server-side filtering instead of downloading /all: every parameter is optional and they
+	// combine with AND. ?category=&minAmount=&maxAmount=&from=&to=&q=&sort=date|amount
+	// &order=desc|asc&limit=N, then &cursor=<nextCursor> (with the same filters) for the next page
+	@GetMapping("/search")
+	public ResponseEntity<?> searchIncomes(@RequestParam(required = false) String category,
+			@RequestParam(required = false) Integer minAmount,
+			@RequestParam(required = false) Integer maxAmount,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(required = false) String q,
+			@RequestParam(defaultValue = "date") String sort,
+			@RequestParam(defaultValue = "desc") String order,
+			@RequestParam(defaultValue = "50") int limit,
+			@RequestParam(required = false) String cursor,
+			WebRequest webRequest) {
+		if (webRequest.checkNotModified(dataVersionService.currentETag(null))) {
+			return null;
+		}
+		try {
+			if (!"desc".equalsIgnoreCase(order) && !"asc".equalsIgnoreCase(order)) {
+				throw new IllegalArgumentException("Unsupported order: " + order);
+			}
+			LedgerSearch search = new LedgerSearch(category, minAmount, maxAmount, from, to, q,
+					LedgerSort.fromName(sort), "desc".equalsIgnoreCase(order));
+			return ConditionalSupport.ok(incomeService.searchIncomes(search, cursor, limit));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
+	}
+	
+	// Streams every income as NDJSON without building the full list in memory
+	@GetMapping(value = "/all", params = "stream=true")
+	public void streamAllIncomes(HttpServletResponse response) throws IOException {
+		response.setContentType(NdjsonWriter.CONTENT_TYPE);
+		try (NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream())) {
+			incomeService.streamAllIncomes(writer::write);
+		}
 	}
 	
 	
 	@PutMapping("/{id}")
 	public ResponseEntity<?> updateIncome(@PathVariable Long id, @RequestBody IncomeDTO incomeDTO) {
 		try {
-            Income updatedIncome = incomeService.updateIncome(id, incomeDTO);
+            IncomeDTO updatedIncome = incomeService.updateIncome(id, incomeDTO);
             return ResponseEntity.ok(updatedIncome);
 		} catch (EntityNotFoundException ex) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+		} catch (AccessDeniedException ex) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access Denied: Record not owned by user.");
 		} catch (Exception ex) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body("An error occurred while updating the income.");
@@ -78,6 +189,8 @@ public class IncomeController {
 			return ResponseEntity.ok("Income deleted successfully.");
 		} catch (EntityNotFoundException ex) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+		} catch (AccessDeniedException ex) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access Denied: Record not owned by user.");
 		} catch (Exception ex) {
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body("An error occurred while deleting the income.");
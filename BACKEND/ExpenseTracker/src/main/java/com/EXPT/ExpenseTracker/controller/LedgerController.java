@@ -0,0 +1,70 @@
+package com.EXPT.ExpenseTracker.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.services.export.ExportService;
+import com.EXPT.ExpenseTracker.services.search.TextSearchService;
+import com.EXPT.ExpenseTracker.services.version.DataVersionService;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/ledger")
+@RequiredArgsConstructor
+@CrossOrigin("*")
+public class LedgerController {
+
+	private final ExportService exportService;
+	
+	private final TextSearchService textSearchService;
+	
+	private final DataVersionService dataVersionService;
+	
+	// Incomes and expenses in one file, oldest first: ?format=csv|ndjson&gzip=true
+	@GetMapping("/export")
+	public void exportLedger(@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(defaultValue = "false") boolean gzip,
+			HttpServletResponse response) throws IOException {
+		LedgerFormat ledgerFormat;
+		try {
+			ledgerFormat = LedgerFormat.fromName(format);
+		} catch (IllegalArgumentException e) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+			return;
+		}
+		try (OutputStream out = ExportSupport.openDownload(response, "ledger", ledgerFormat, gzip)) {
+			exportService.exportCombinedLedger(ledgerFormat, out);
+		}
+	}
+	
+	// Ranked text search over titles, categories and descriptions: ?q=amazon order&kind=expense|income&limit=20.
+	// Every word has to match, as a whole word or as the start of one; both ledgers unless kind is given
+	@GetMapping("/search")
+	public ResponseEntity<?> search(@RequestParam String q,
+			@RequestParam(required = false) String kind,
+			@RequestParam(defaultValue = "20") int limit,
+			WebRequest webRequest) {
+		if (webRequest.checkNotModified(dataVersionService.currentETag(null))) {
+			return null;
+		}
+		try {
+			LedgerKind ledgerKind = kind != null ? LedgerKind.fromName(kind) : null;
+			return ConditionalSupport.ok(textSearchService.search(q, ledgerKind, limit));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
+	}
+}
@@ -1,13 +1,21 @@
 package com.EXPT.ExpenseTracker.controller;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.EXPT.ExpenseTracker.dto.GraphDTO;
 import com.EXPT.ExpenseTracker.services.stats.StatsService;
+import com.EXPT.ExpenseTracker.services.trend.TrendService;
+import com.EXPT.ExpenseTracker.services.version.DataVersionService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,14 +27,74 @@ public class StatsController {
 
 	private final StatsService statsService;
 	
+	private final DataVersionService dataVersionService;
+	
+	private final TrendService trendService;
 	
+	
+	// Without parameters this returns the raw rows of the last 10 months (GraphDTO).
+	// With granularity/from/to it returns per-day or per-month totals (ChartSeriesDTO).
 	@GetMapping("/chart")
-	public ResponseEntity<GraphDTO> getChartData() {
-		return ResponseEntity.ok(statsService.getChartData());
+	public ResponseEntity<?> getChartData(
+			@RequestParam(required = false) String granularity,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			WebRequest webRequest) {
+		// Both shapes default their window to today, so the date is part of the tag
+		if (webRequest.checkNotModified(dataVersionService.currentETag(LocalDate.now().toString()))) {
+			return null;
+		}
+		if (granularity == null && from == null && to == null) {
+			return ConditionalSupport.ok(statsService.getChartData());
+		}
+		try {
+			return ConditionalSupport.ok(statsService.getChartSeries(granularity != null ? granularity : "month", from, to));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
+	}
+	
+	// Per-category sum/count/average/share for ?kind=expense|income, optionally within from/to,
+	// with everything past the top N folded into "Other"
+	@GetMapping("/categories")
+	public ResponseEntity<?> getCategoryBreakdown(
+			@RequestParam(defaultValue = "expense") String kind,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+			@RequestParam(defaultValue = "8") int top,
+			WebRequest webRequest) {
+		if (webRequest.checkNotModified(dataVersionService.currentETag(null))) {
+			return null;
+		}
+		try {
+			return ConditionalSupport.ok(statsService.getCategoryBreakdown(kind, from, to, top));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
+	}
+	
+	// Monthly series with 3/12-month rolling averages, month-over-month change and
+	// savings rate: ?from=yyyy-MM&to=yyyy-MM, the last 12 months by default
+	@GetMapping("/trend")
+	public ResponseEntity<?> getTrend(
+			@RequestParam(required = false) YearMonth from,
+			@RequestParam(required = false) YearMonth to,
+			WebRequest webRequest) {
+		if (webRequest.checkNotModified(dataVersionService.currentETag(YearMonth.now().toString()))) {
+			return null;
+		}
+		try {
+			return ConditionalSupport.ok(trendService.getTrend(from, to));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+		}
 	}
 	
 	@GetMapping
-	public ResponseEntity<?> getStats() {
-		return ResponseEntity.ok(statsService.getStats());
+	public ResponseEntity<?> getStats(WebRequest webRequest) {
+		if (webRequest.checkNotModified(dataVersionService.currentETag(null))) {
+			return null;
+		}
+		return ConditionalSupport.ok(statsService.getStats());
 	}
 }
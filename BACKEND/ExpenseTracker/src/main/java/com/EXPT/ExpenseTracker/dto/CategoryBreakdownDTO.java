@@ -0,0 +1,25 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Per-category totals for one ledger, largest first. Only the top categories
+ * are listed; the rest are folded into a single "Other" entry at the end,
+ * flagged as {@link CategoryShareDTO#isOther()}.
+ * A null {@code from}/{@code to} means the window is open on that side.
+ */
+@Data
+public class CategoryBreakdownDTO {
+
+	private String kind;
+	private LocalDate from;
+	private LocalDate to;
+	
+	private long total;
+	private long count;
+	
+	private List<CategoryShareDTO> categories;
+}
@@ -0,0 +1,25 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One category of a {@link CategoryBreakdownDTO}. {@code share} is the fraction
+ * (0..1) of the window's total. {@code other} marks the entry the tail was folded
+ * into and {@code uncategorized} the entries without a category; their labels
+ * can also be real category names, the flags can't.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryShareDTO {
+
+	private String category;
+	private long total;
+	private long count;
+	private double average;
+	private double share;
+	private boolean other;
+	private boolean uncategorized;
+}
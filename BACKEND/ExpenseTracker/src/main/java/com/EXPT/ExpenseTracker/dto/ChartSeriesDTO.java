@@ -0,0 +1,21 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+
+/**
+ * Pre-bucketed chart data. {@code labels[i]}, {@code income[i]} and
+ * {@code expense[i]} describe the same bucket (a day or a month).
+ */
+@Data
+public class ChartSeriesDTO {
+
+	private String granularity;
+	private LocalDate from;
+	private LocalDate to;
+	
+	private String[] labels;
+	private long[] income;
+	private long[] expense;
+}
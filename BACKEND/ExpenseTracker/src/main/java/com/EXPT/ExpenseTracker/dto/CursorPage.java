@@ -0,0 +1,17 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+	private List<T> items;
+	private String nextCursor;
+}
@@ -2,9 +2,13 @@ package com.EXPT.ExpenseTracker.dto;
 
 import java.time.LocalDate;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ExpenseDTO {
 
 	private Long id;
@@ -0,0 +1,25 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ImportResultDTO {
+
+	private long imported;
+	private long rejected;
+	
+	// Only the first errors are kept, rejected holds the full count
+	private List<RowError> errors = new ArrayList<>();
+	
+	private long durationMs;
+	private double rowsPerSecond;
+	
+	@Data
+	public static class RowError {
+		private final long line;
+		private final String message;
+	}
+}
@@ -0,0 +1,19 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One exported ledger row. {@code kind} is only set in the combined ledger export.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LedgerEntryDTO(
+		String kind,
+		long id,
+		LocalDate date,
+		String title,
+		String category,
+		Integer amount,
+		String description) {
+}
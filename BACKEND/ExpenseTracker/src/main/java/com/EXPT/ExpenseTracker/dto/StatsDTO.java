@@ -1,8 +1,5 @@
 package com.EXPT.ExpenseTracker.dto;
 
-import com.EXPT.ExpenseTracker.entity.Expense;
-import com.EXPT.ExpenseTracker.entity.Income;
-
 import lombok.Data;
 
 @Data
@@ -11,8 +8,8 @@ public class StatsDTO {
 	private Double income;
 	private Double expense;
 	
-	private Income latestIncome;
-	private Expense latestExpense;
+	private IncomeDTO latestIncome;
+	private ExpenseDTO latestExpense;
 	
 	private double balance;
 	private double minIncome;
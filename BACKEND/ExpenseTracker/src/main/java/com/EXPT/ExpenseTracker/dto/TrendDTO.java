@@ -0,0 +1,18 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Monthly trend series from {@code from} to {@code to} (both "yyyy-MM"), one
+ * point per calendar month, oldest first.
+ */
+@Data
+public class TrendDTO {
+
+	private String from;
+	private String to;
+	
+	private List<TrendPointDTO> points;
+}
@@ -0,0 +1,28 @@
+package com.EXPT.ExpenseTracker.dto;
+
+import lombok.Data;
+
+/**
+ * One month of a {@link TrendDTO}. Rolling averages cover the month and the
+ * months before it, counting months without entries as zero. The change and
+ * savings-rate fields are fractions (0.25 = 25%) and null when undefined,
+ * i.e. when the previous month or the month's income is zero.
+ */
+@Data
+public class TrendPointDTO {
+
+	private String month;
+	
+	private long income;
+	private long expense;
+	private long net;
+	
+	private double incomeAvg3;
+	private double incomeAvg12;
+	private double expenseAvg3;
+	private double expenseAvg12;
+	
+	private Double incomeChange;
+	private Double expenseChange;
+	private Double savingsRate;
+}
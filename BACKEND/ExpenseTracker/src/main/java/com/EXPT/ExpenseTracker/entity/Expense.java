@@ -2,17 +2,32 @@ package com.EXPT.ExpenseTracker.entity;
 
 import java.time.LocalDate;
 
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
 @Data
+// (user_id, date, id) serves every per-user date range, latest-row and keyset query;
+// (user_id, category, date, id, amount) serves category lookups and date-ordered category
+// pages, and covers the per-category GROUP BY, so the breakdown is answered from the index alone;
+// (user_id, amount, id) serves amount ranges and amount-ordered search pages.
+// ddl-auto=update only creates indexes by name, so the widened category index has a new name;
+// on an existing schema drop the old one once: DROP INDEX idx_expense_user_category ON expense
+@Table(indexes = {
+	@Index(name = "idx_expense_user_date", columnList = "user_id, date, id"),
+	@Index(name = "idx_expense_user_category_date", columnList = "user_id, category, date, id, amount"),
+	@Index(name = "idx_expense_user_amount", columnList = "user_id, amount, id")
+})
 public class Expense {
 
 	@Id
@@ -29,6 +44,10 @@ public class Expense {
 	
 	private Integer amount;
 	
+	public ExpenseDTO getExpenseDto() {
+		return new ExpenseDTO(id, title, description, category, date, amount);
+	}
+	
 	// ADD THIS NEW FIELD
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "user_id", nullable = false)
@@ -9,12 +9,25 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
 @Data
+// (user_id, date, id) serves every per-user date range, latest-row and keyset query;
+// (user_id, category, date, id, amount) serves category lookups and date-ordered category
+// pages, and covers the per-category GROUP BY, so the breakdown is answered from the index alone;
+// (user_id, amount, id) serves amount ranges and amount-ordered search pages.
+// ddl-auto=update only creates indexes by name, so the widened category index has a new name;
+// on an existing schema drop the old one once: DROP INDEX idx_income_user_category ON income
+@Table(indexes = {
+	@Index(name = "idx_income_user_date", columnList = "user_id, date, id"),
+	@Index(name = "idx_income_user_category_date", columnList = "user_id, category, date, id, amount"),
+	@Index(name = "idx_income_user_amount", columnList = "user_id, amount, id")
+})
 public class Income {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,30 @@
+package com.EXPT.ExpenseTracker.entity;
+
+/**
+ * The two ledgers a user keeps, with the table each one is stored in.
+ */
+public enum LedgerKind {
+
+	EXPENSE("expense"),
+	INCOME("income");
+
+	private final String tableName;
+
+	LedgerKind(String tableName) {
+		this.tableName = tableName;
+	}
+
+	public String getTableName() {
+		return tableName;
+	}
+
+	/** Parses a {@code ?kind=} value such as "expense" or "income". */
+	public static LedgerKind fromName(String name) {
+		for (LedgerKind kind : values()) {
+			if (kind.tableName.equalsIgnoreCase(name)) {
+				return kind;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported kind: " + name);
+	}
+}
@@ -0,0 +1,61 @@
+package com.EXPT.ExpenseTracker.entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One posting of the per-user inverted index behind text search: {@code token}
+ * occurs in the title, category or description of ledger entry {@code entryId}.
+ * Maintained with plain JDBC by the text search service.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@IdClass(LedgerToken.Key.class)
+// (user_id, token, ...) answers exact and prefix lookups from the index alone;
+// (user_id, kind, entry_id) finds an entry's postings when it changes or goes away
+@Table(name = "ledger_token", indexes = {
+	@Index(name = "idx_ledger_token_lookup", columnList = "user_id, token, kind, entry_id, weight"),
+	@Index(name = "idx_ledger_token_entry", columnList = "user_id, kind, entry_id")
+})
+public class LedgerToken {
+
+	@Id
+	private Long userId;
+	
+	@Id
+	@Column(length = 32)
+	private String token;
+	
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(length = 16)
+	private LedgerKind kind;
+	
+	@Id
+	private Long entryId;
+	
+	// sum of the weights of the fields the token occurs in
+	private int weight;
+	
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private Long userId;
+		private String token;
+		private LedgerKind kind;
+		private Long entryId;
+	}
+}
@@ -0,0 +1,66 @@
+package com.EXPT.ExpenseTracker.entity;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.EXPT.ExpenseTracker.repository.AmountSummary;
+
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+
+/**
+ * Running totals of one ledger (incomes or expenses) of a user, maintained by
+ * applying deltas on every write.
+ */
+@Embeddable
+@Data
+public class LedgerTotals {
+
+	private long total;
+	
+	private long count;
+	
+	private Integer minAmount;
+	
+	private Integer maxAmount;
+	
+	private LocalDate latestDate;
+	
+	private Long latestId;
+	
+	public void add(Long id, LocalDate date, Integer amount) {
+		count++;
+		if (amount != null) {
+			total += amount;
+			minAmount = minAmount == null ? amount : Math.min(minAmount, amount);
+			maxAmount = maxAmount == null ? amount : Math.max(maxAmount, amount);
+		}
+		if (date != null && (latestDate == null || date.isAfter(latestDate)
+				|| (date.equals(latestDate) && latestId != null && id > latestId))) {
+			latestDate = date;
+			latestId = id;
+		}
+	}
+	
+	/**
+	 * Removes a row from the totals. Returns false when the row was the current
+	 * minimum, maximum or latest one; those can't be derived from a delta and the
+	 * caller has to reload them with {@link #reset(AmountSummary)}.
+	 */
+	public boolean remove(Long id, LocalDate date, Integer amount) {
+		count--;
+		if (amount != null) {
+			total -= amount;
+		}
+		return !(Objects.equals(amount, minAmount) || Objects.equals(amount, maxAmount) || Objects.equals(id, latestId));
+	}
+	
+	public void reset(AmountSummary summary) {
+		total = summary.getTotal() != null ? summary.getTotal() : 0;
+		count = summary.getCount() != null ? summary.getCount() : 0;
+		minAmount = summary.getMinAmount();
+		maxAmount = summary.getMaxAmount();
+		latestDate = summary.getLatestDate();
+		latestId = summary.getLatestId();
+	}
+}
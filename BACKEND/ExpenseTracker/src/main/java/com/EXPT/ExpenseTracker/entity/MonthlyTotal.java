@@ -0,0 +1,58 @@
+package com.EXPT.ExpenseTracker.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user, per-ledger, per-month rollup maintained alongside {@link UserBalance}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@IdClass(MonthlyTotal.Key.class)
+@Table(name = "user_monthly_total")
+public class MonthlyTotal {
+
+	@Id
+	private Long userId;
+	
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(length = 16)
+	private LedgerKind kind;
+	
+	// first day of the month
+	@Id
+	@Column(name = "month_start")
+	private LocalDate month;
+	
+	private long total;
+	
+	private long count;
+	
+	public MonthlyTotal(Long userId, LedgerKind kind, LocalDate month) {
+		this.userId = userId;
+		this.kind = kind;
+		this.month = month;
+	}
+	
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Key implements Serializable {
+		private Long userId;
+		private LedgerKind kind;
+		private LocalDate month;
+	}
+}
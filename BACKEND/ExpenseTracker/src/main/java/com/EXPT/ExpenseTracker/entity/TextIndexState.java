@@ -0,0 +1,23 @@
+package com.EXPT.ExpenseTracker.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Marks a user whose {@link LedgerToken} postings were built from the ledger
+ * tables; writes keep them current from then on.
+ */
+@Entity
+@Data
+@Table(name = "ledger_token_state")
+public class TextIndexState {
+
+	@Id
+	private Long userId;
+	
+	private Instant indexedAt;
+}
@@ -0,0 +1,61 @@
+package com.EXPT.ExpenseTracker.entity;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user lifetime totals, updated in the same transaction as every income
+ * and expense write so the dashboard stats are a primary-key lookup.
+ * Derived data: it can always be rebuilt from the income and expense tables.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "user_balance")
+public class UserBalance {
+
+	@Id
+	private Long userId;
+	
+	@Embedded
+	@AttributeOverrides({
+		@AttributeOverride(name = "total", column = @Column(name = "income_total")),
+		@AttributeOverride(name = "count", column = @Column(name = "income_count")),
+		@AttributeOverride(name = "minAmount", column = @Column(name = "income_min")),
+		@AttributeOverride(name = "maxAmount", column = @Column(name = "income_max")),
+		@AttributeOverride(name = "latestDate", column = @Column(name = "income_latest_date")),
+		@AttributeOverride(name = "latestId", column = @Column(name = "income_latest_id"))
+	})
+	private LedgerTotals income = new LedgerTotals();
+	
+	@Embedded
+	@AttributeOverrides({
+		@AttributeOverride(name = "total", column = @Column(name = "expense_total")),
+		@AttributeOverride(name = "count", column = @Column(name = "expense_count")),
+		@AttributeOverride(name = "minAmount", column = @Column(name = "expense_min")),
+		@AttributeOverride(name = "maxAmount", column = @Column(name = "expense_max")),
+		@AttributeOverride(name = "latestDate", column = @Column(name = "expense_latest_date")),
+		@AttributeOverride(name = "latestId", column = @Column(name = "expense_latest_id"))
+	})
+	private LedgerTotals expense = new LedgerTotals();
+	
+	// The per-user data version when data-version.store=database. Only ever changed by
+	// UserBalanceRepository.incrementDataVersion, so saving the totals can't write an old value back
+	@Column(name = "data_version", insertable = false, updatable = false, columnDefinition = "bigint default 0 not null")
+	private long dataVersion;
+	
+	public UserBalance(Long userId) {
+		this.userId = userId;
+	}
+	
+	public LedgerTotals totals(LedgerKind kind) {
+		return kind == LedgerKind.INCOME ? income : expense;
+	}
+}
@@ -0,0 +1,23 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregate view over a user's incomes or expenses, computed in the database.
+ * All values are null when the user has no rows.
+ */
+public interface AmountSummary {
+
+	Long getTotal();
+
+	Integer getMinAmount();
+
+	Integer getMaxAmount();
+
+	Long getCount();
+
+	LocalDate getLatestDate();
+
+	/** Id of the row with the latest date (highest id wins on ties). */
+	Long getLatestId();
+}
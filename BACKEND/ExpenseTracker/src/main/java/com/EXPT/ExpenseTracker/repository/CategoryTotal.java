@@ -0,0 +1,13 @@
+package com.EXPT.ExpenseTracker.repository;
+
+/**
+ * Sum and row count of one category, used for the category breakdown.
+ */
+public interface CategoryTotal {
+
+	String getCategory();
+
+	Long getTotal();
+
+	Long getCount();
+}
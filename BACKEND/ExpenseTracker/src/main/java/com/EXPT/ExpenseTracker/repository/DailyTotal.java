@@ -0,0 +1,13 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Sum of amounts for a single day, used to build chart buckets.
+ */
+public interface DailyTotal {
+
+	LocalDate getDay();
+
+	Long getTotal();
+}
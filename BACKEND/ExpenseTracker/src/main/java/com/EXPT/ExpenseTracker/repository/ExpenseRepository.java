@@ -1,28 +1,114 @@
 package com.EXPT.ExpenseTracker.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
 import com.EXPT.ExpenseTracker.entity.Expense;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseSearchRepository {
 
+	/** @deprecated not scoped to a user, use {@link #findDtoByUserIdAndDateBetween} */
+	@Deprecated
 	List<Expense> findByDateBetween(LocalDate startDate, LocalDate endDate);
 	
 	@Query("SELECT SUM(e.amount) FROM Expense e")
 	Double sumAllAmounts();
 	
+	/** @deprecated not scoped to a user, use {@link #findFirstByUserIdOrderByDateDescIdDesc} */
+	@Deprecated
 	Optional<Expense> findFirstByOrderByDateDesc();
 	
+	Optional<Expense> findFirstByUserIdOrderByDateDescIdDesc(Long userId);
+	
 	 List<Expense> findByUserId(Long userId);
-}
 
+	@Query("SELECT SUM(e.amount) AS total, MIN(e.amount) AS minAmount, MAX(e.amount) AS maxAmount, COUNT(e) AS count, "
+			+ "(SELECT MAX(d.date) FROM Expense d WHERE d.user.id = :userId) AS latestDate, "
+			+ "(SELECT MAX(l.id) FROM Expense l WHERE l.user.id = :userId AND l.date = "
+			+ "(SELECT MAX(d.date) FROM Expense d WHERE d.user.id = :userId)) AS latestId "
+			+ "FROM Expense e WHERE e.user.id = :userId")
+	AmountSummary summarizeByUserId(@Param("userId") Long userId);
+	
+	// Ownership is part of every mutation's WHERE clause; an empty result means missing or not ours.
+	// Locked so the old values handed to the rollups can't change before the UPDATE/DELETE runs
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT e.date AS date, e.amount AS amount FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+	Optional<LedgerAmount> findOwnedAmountForUpdate(@Param("id") Long id, @Param("userId") Long userId);
+	
+	@Modifying
+	@Query("UPDATE Expense e SET e.title = :#{#expense.title}, e.description = :#{#expense.description}, "
+			+ "e.category = :#{#expense.category}, e.date = :#{#expense.date}, e.amount = :#{#expense.amount} "
+			+ "WHERE e.id = :id AND e.user.id = :userId")
+	int updateOwned(@Param("id") Long id, @Param("userId") Long userId, @Param("expense") ExpenseDTO expense);
+	
+	@Modifying
+	@Query("DELETE FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+	int deleteOwned(@Param("id") Long id, @Param("userId") Long userId);
+	
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.ExpenseDTO(e.id, e.title, e.description, e.category, e.date, e.amount) FROM Expense e WHERE e.id = :id")
+	Optional<ExpenseDTO> findDtoById(@Param("id") Long id);
+	
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.ExpenseDTO(e.id, e.title, e.description, e.category, e.date, e.amount) FROM Expense e "
+			+ "WHERE e.user.id = :userId AND e.id IN :ids")
+	List<ExpenseDTO> findDtoByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.ExpenseDTO(e.id, e.title, e.description, e.category, e.date, e.amount) FROM Expense e "
+			+ "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate")
+	List<ExpenseDTO> findDtoByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+	
+	@Query("SELECT e.date AS day, SUM(e.amount) AS total FROM Expense e "
+			+ "WHERE e.user.id = :userId AND e.date BETWEEN :startDate AND :endDate GROUP BY e.date")
+	List<DailyTotal> sumByDay(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+	
+	// Largest categories first; null bounds leave that side of the window open
+	@Query("SELECT e.category AS category, SUM(e.amount) AS total, COUNT(e) AS count FROM Expense e "
+			+ "WHERE e.user.id = :userId AND (:from IS NULL OR e.date >= :from) AND (:to IS NULL OR e.date <= :to) "
+			+ "GROUP BY e.category ORDER BY SUM(e.amount) DESC, e.category")
+	List<CategoryTotal> sumByCategory(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.ExpenseDTO(e.id, e.title, e.description, e.category, e.date, e.amount) FROM Expense e "
+			+ "WHERE e.user.id = :userId ORDER BY e.date DESC, e.id DESC")
+	List<ExpenseDTO> findAllDtoByUserId(@Param("userId") Long userId);
+	
+	// Keyset pagination on (date desc, id desc); the first page has no cursor
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.ExpenseDTO(e.id, e.title, e.description, e.category, e.date, e.amount) FROM Expense e "
+			+ "WHERE e.user.id = :userId ORDER BY e.date DESC, e.id DESC")
+	List<ExpenseDTO> findPageByUserId(@Param("userId") Long userId, Limit limit);
+	
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.ExpenseDTO(e.id, e.title, e.description, e.category, e.date, e.amount) FROM Expense e "
+			+ "WHERE e.user.id = :userId AND (e.date < :date OR (e.date = :date AND e.id < :id)) "
+			+ "ORDER BY e.date DESC, e.id DESC")
+	List<ExpenseDTO> findPageByUserIdBefore(@Param("userId") Long userId, @Param("date") LocalDate date,
+			@Param("id") Long id, Limit limit);
+	
+	// Must be consumed inside a transaction and closed by the caller
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.ExpenseDTO(e.id, e.title, e.description, e.category, e.date, e.amount) FROM Expense e "
+			+ "WHERE e.user.id = :userId ORDER BY e.date DESC, e.id DESC")
+	Stream<ExpenseDTO> streamByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT YEAR(e.date) AS yearValue, MONTH(e.date) AS monthValue, SUM(e.amount) AS total, COUNT(e) AS count "
+			+ "FROM Expense e WHERE e.user.id = :userId AND e.date IS NOT NULL GROUP BY YEAR(e.date), MONTH(e.date)")
+	List<MonthSummary> summarizeByMonth(@Param("userId") Long userId);
+}
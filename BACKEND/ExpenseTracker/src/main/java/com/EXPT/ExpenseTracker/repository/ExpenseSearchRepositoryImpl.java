@@ -0,0 +1,24 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.util.List;
+
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.util.SearchCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class ExpenseSearchRepositoryImpl implements ExpenseSearchRepository {
+
+	// ExpenseDTO constructor order
+	private static final List<String> COLUMNS = List.of("id", "title", "description", "category", "date", "amount");
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<ExpenseDTO> search(Long userId, LedgerSearch search, SearchCursor after, int limit) {
+		return LedgerCriteria.search(entityManager, Expense.class, ExpenseDTO.class, COLUMNS, userId, search, after, limit);
+	}
+}
@@ -1,26 +1,114 @@
 package com.EXPT.ExpenseTracker.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
 import com.EXPT.ExpenseTracker.entity.Income;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface IncomeRepository extends JpaRepository<Income, Long> {
+public interface IncomeRepository extends JpaRepository<Income, Long>, IncomeSearchRepository {
 
+	/** @deprecated not scoped to a user, use {@link #findDtoByUserIdAndDateBetween} */
+	@Deprecated
 	List<Income> findByDateBetween(LocalDate startDate, LocalDate endDate);
 	
 	
 	@Query("SELECT SUM(i.amount) FROM Income i")
 	Double sumAllAmounts();
 	
+	/** @deprecated not scoped to a user, use {@link #findFirstByUserIdOrderByDateDescIdDesc} */
+	@Deprecated
 	Optional<Income> findFirstByOrderByDateDesc();
 	
+	Optional<Income> findFirstByUserIdOrderByDateDescIdDesc(Long userId);
+	
 	 List<Income> findByUserId(Long userId);
+
+	@Query("SELECT SUM(i.amount) AS total, MIN(i.amount) AS minAmount, MAX(i.amount) AS maxAmount, COUNT(i) AS count, "
+			+ "(SELECT MAX(d.date) FROM Income d WHERE d.user.id = :userId) AS latestDate, "
+			+ "(SELECT MAX(l.id) FROM Income l WHERE l.user.id = :userId AND l.date = "
+			+ "(SELECT MAX(d.date) FROM Income d WHERE d.user.id = :userId)) AS latestId "
+			+ "FROM Income i WHERE i.user.id = :userId")
+	AmountSummary summarizeByUserId(@Param("userId") Long userId);
+	
+	// Ownership is part of every mutation's WHERE clause; an empty result means missing or not ours.
+	// Locked so the old values handed to the rollups can't change before the UPDATE/DELETE runs
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT i.date AS date, i.amount AS amount FROM Income i WHERE i.id = :id AND i.user.id = :userId")
+	Optional<LedgerAmount> findOwnedAmountForUpdate(@Param("id") Long id, @Param("userId") Long userId);
+	
+	@Modifying
+	@Query("UPDATE Income i SET i.title = :#{#income.title}, i.description = :#{#income.description}, "
+			+ "i.category = :#{#income.category}, i.date = :#{#income.date}, i.amount = :#{#income.amount} "
+			+ "WHERE i.id = :id AND i.user.id = :userId")
+	int updateOwned(@Param("id") Long id, @Param("userId") Long userId, @Param("income") IncomeDTO income);
+	
+	@Modifying
+	@Query("DELETE FROM Income i WHERE i.id = :id AND i.user.id = :userId")
+	int deleteOwned(@Param("id") Long id, @Param("userId") Long userId);
+	
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.IncomeDTO(i.id, i.title, i.amount, i.date, i.category, i.description) FROM Income i WHERE i.id = :id")
+	Optional<IncomeDTO> findDtoById(@Param("id") Long id);
+	
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.IncomeDTO(i.id, i.title, i.amount, i.date, i.category, i.description) FROM Income i "
+			+ "WHERE i.user.id = :userId AND i.id IN :ids")
+	List<IncomeDTO> findDtoByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.IncomeDTO(i.id, i.title, i.amount, i.date, i.category, i.description) FROM Income i "
+			+ "WHERE i.user.id = :userId AND i.date BETWEEN :startDate AND :endDate")
+	List<IncomeDTO> findDtoByUserIdAndDateBetween(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+	
+	@Query("SELECT i.date AS day, SUM(i.amount) AS total FROM Income i "
+			+ "WHERE i.user.id = :userId AND i.date BETWEEN :startDate AND :endDate GROUP BY i.date")
+	List<DailyTotal> sumByDay(@Param("userId") Long userId, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+	
+	// Largest categories first; null bounds leave that side of the window open
+	@Query("SELECT i.category AS category, SUM(i.amount) AS total, COUNT(i) AS count FROM Income i "
+			+ "WHERE i.user.id = :userId AND (:from IS NULL OR i.date >= :from) AND (:to IS NULL OR i.date <= :to) "
+			+ "GROUP BY i.category ORDER BY SUM(i.amount) DESC, i.category")
+	List<CategoryTotal> sumByCategory(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.IncomeDTO(i.id, i.title, i.amount, i.date, i.category, i.description) FROM Income i "
+			+ "WHERE i.user.id = :userId ORDER BY i.date DESC, i.id DESC")
+	List<IncomeDTO> findAllDtoByUserId(@Param("userId") Long userId);
+	
+	// Keyset pagination on (date desc, id desc); the first page has no cursor
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.IncomeDTO(i.id, i.title, i.amount, i.date, i.category, i.description) FROM Income i "
+			+ "WHERE i.user.id = :userId ORDER BY i.date DESC, i.id DESC")
+	List<IncomeDTO> findPageByUserId(@Param("userId") Long userId, Limit limit);
+	
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.IncomeDTO(i.id, i.title, i.amount, i.date, i.category, i.description) FROM Income i "
+			+ "WHERE i.user.id = :userId AND (i.date < :date OR (i.date = :date AND i.id < :id)) "
+			+ "ORDER BY i.date DESC, i.id DESC")
+	List<IncomeDTO> findPageByUserIdBefore(@Param("userId") Long userId, @Param("date") LocalDate date,
+			@Param("id") Long id, Limit limit);
+	
+	// Must be consumed inside a transaction and closed by the caller
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("SELECT new com.EXPT.ExpenseTracker.dto.IncomeDTO(i.id, i.title, i.amount, i.date, i.category, i.description) FROM Income i "
+			+ "WHERE i.user.id = :userId ORDER BY i.date DESC, i.id DESC")
+	Stream<IncomeDTO> streamByUserId(@Param("userId") Long userId);
+
+	@Query("SELECT YEAR(i.date) AS yearValue, MONTH(i.date) AS monthValue, SUM(i.amount) AS total, COUNT(i) AS count "
+			+ "FROM Income i WHERE i.user.id = :userId AND i.date IS NOT NULL GROUP BY YEAR(i.date), MONTH(i.date)")
+	List<MonthSummary> summarizeByMonth(@Param("userId") Long userId);
 }
@@ -0,0 +1,15 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.util.List;
+
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.util.SearchCursor;
+
+/**
+ * Filtered, keyset-paged search over one user's incomes; see {@link LedgerSearch}.
+ */
+public interface IncomeSearchRepository {
+
+	/** At most {@code limit} rows strictly after {@code after}, or from the start when it's null. */
+	List<IncomeDTO> search(Long userId, LedgerSearch search, SearchCursor after, int limit);
+}
@@ -0,0 +1,24 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.util.List;
+
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.util.SearchCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class IncomeSearchRepositoryImpl implements IncomeSearchRepository {
+
+	// IncomeDTO constructor order
+	private static final List<String> COLUMNS = List.of("id", "title", "amount", "date", "category", "description");
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<IncomeDTO> search(Long userId, LedgerSearch search, SearchCursor after, int limit) {
+		return LedgerCriteria.search(entityManager, Income.class, IncomeDTO.class, COLUMNS, userId, search, after, limit);
+	}
+}
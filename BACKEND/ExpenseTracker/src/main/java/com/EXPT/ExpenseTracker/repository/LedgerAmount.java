@@ -0,0 +1,14 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Date and amount of a single ledger row, the values the rollups need
+ * before the row is changed or removed.
+ */
+public interface LedgerAmount {
+
+	LocalDate getDate();
+
+	Integer getAmount();
+}
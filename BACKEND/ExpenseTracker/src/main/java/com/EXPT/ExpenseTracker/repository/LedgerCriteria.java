@@ -0,0 +1,101 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.EXPT.ExpenseTracker.util.LedgerSort;
+import com.EXPT.ExpenseTracker.util.SearchCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria query behind the expense and income search; both entities share the
+ * attribute names used here. Every filter combination starts on the user_id
+ * prefix of one of the composite indexes:
+ * <ul>
+ * <li>a category, sorted by date: {@code idx_*_user_category_date (user_id, category, date, id, amount)},
+ * pages come back in index order</li>
+ * <li>sorted by amount or with an amount range: {@code idx_*_user_amount (user_id, amount, id)}</li>
+ * <li>anything else: {@code idx_*_user_date (user_id, date, id)}</li>
+ * </ul>
+ * The text match is a residual filter on the rows the index range selects.
+ */
+final class LedgerCriteria {
+
+	private LedgerCriteria() {
+	}
+
+	/**
+	 * Selects {@code columns} into {@code dto} via its constructor. Rows without a
+	 * value for the sort key can't be positioned by a cursor and are left out.
+	 */
+	static <E, D> List<D> search(EntityManager entityManager, Class<E> entity, Class<D> dto, List<String> columns,
+			Long userId, LedgerSearch search, SearchCursor after, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<D> query = cb.createQuery(dto);
+		Root<E> root = query.from(entity);
+		query.select(cb.construct(dto, columns.stream().map(root::get).toArray(Selection<?>[]::new)));
+
+		List<Predicate> where = new ArrayList<>();
+		where.add(cb.equal(root.get("user").get("id"), userId));
+		if (search.category() != null) {
+			where.add(cb.equal(root.get("category"), search.category()));
+		}
+		Path<Integer> amount = root.get("amount");
+		if (search.minAmount() != null) {
+			where.add(cb.greaterThanOrEqualTo(amount, search.minAmount()));
+		}
+		if (search.maxAmount() != null) {
+			where.add(cb.lessThanOrEqualTo(amount, search.maxAmount()));
+		}
+		Path<LocalDate> date = root.get("date");
+		if (search.from() != null) {
+			where.add(cb.greaterThanOrEqualTo(date, search.from()));
+		}
+		if (search.to() != null) {
+			where.add(cb.lessThanOrEqualTo(date, search.to()));
+		}
+		if (search.text() != null) {
+			String pattern = "%" + escapeLike(search.text().toLowerCase(Locale.ROOT)) + "%";
+			where.add(cb.or(cb.like(cb.lower(root.get("title")), pattern, '\\'),
+					cb.like(cb.lower(root.get("description")), pattern, '\\')));
+		}
+
+		List<Order> order = new ArrayList<>();
+		Path<Long> id = root.get("id");
+		if (search.sort() == LedgerSort.AMOUNT) {
+			keyset(cb, amount, id, after == null ? null : (Integer) after.key(), after, search.descending(), where, order);
+		} else {
+			keyset(cb, date, id, after == null ? null : (LocalDate) after.key(), after, search.descending(), where, order);
+		}
+
+		query.where(where.toArray(Predicate[]::new)).orderBy(order);
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+	// Orders by (key, id) and, past the first page, continues strictly after the cursor
+	private static <K extends Comparable<? super K>> void keyset(CriteriaBuilder cb, Path<K> key, Path<Long> id,
+			K afterKey, SearchCursor after, boolean descending, List<Predicate> where, List<Order> order) {
+		where.add(cb.isNotNull(key));
+		if (after != null) {
+			where.add(descending
+					? cb.or(cb.lessThan(key, afterKey), cb.and(cb.equal(key, afterKey), cb.lessThan(id, after.id())))
+					: cb.or(cb.greaterThan(key, afterKey), cb.and(cb.equal(key, afterKey), cb.greaterThan(id, after.id()))));
+		}
+		order.add(descending ? cb.desc(key) : cb.asc(key));
+		order.add(descending ? cb.desc(id) : cb.asc(id));
+	}
+
+	private static String escapeLike(String text) {
+		return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+}
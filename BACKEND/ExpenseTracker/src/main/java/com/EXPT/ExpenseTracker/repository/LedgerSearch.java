@@ -0,0 +1,44 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.time.LocalDate;
+
+import com.EXPT.ExpenseTracker.util.LedgerSort;
+
+/**
+ * Filters of a ledger search, combined with AND. Null fields don't constrain
+ * anything; bounds are inclusive and {@code text} is a case-insensitive match
+ * on title or description.
+ */
+public record LedgerSearch(
+		String category,
+		Integer minAmount,
+		Integer maxAmount,
+		LocalDate from,
+		LocalDate to,
+		String text,
+		LedgerSort sort,
+		boolean descending) {
+
+	public static final int MAX_TEXT_LENGTH = 100;
+
+	public LedgerSearch {
+		category = blankToNull(category);
+		text = blankToNull(text);
+		if (sort == null) {
+			sort = LedgerSort.DATE;
+		}
+		if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+			throw new IllegalArgumentException("'minAmount' must not be greater than 'maxAmount'");
+		}
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new IllegalArgumentException("'from' must not be after 'to'");
+		}
+		if (text != null && text.length() > MAX_TEXT_LENGTH) {
+			throw new IllegalArgumentException("'q' must be at most " + MAX_TEXT_LENGTH + " characters");
+		}
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+}
@@ -0,0 +1,15 @@
+package com.EXPT.ExpenseTracker.repository;
+
+/**
+ * Sum and row count of a user's incomes or expenses for one calendar month.
+ */
+public interface MonthSummary {
+
+	Integer getYearValue();
+
+	Integer getMonthValue();
+
+	Long getTotal();
+
+	Long getCount();
+}
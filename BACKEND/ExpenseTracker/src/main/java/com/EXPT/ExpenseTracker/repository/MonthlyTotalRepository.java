@@ -0,0 +1,23 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.EXPT.ExpenseTracker.entity.MonthlyTotal;
+
+@Repository
+public interface MonthlyTotalRepository extends JpaRepository<MonthlyTotal, MonthlyTotal.Key> {
+
+	List<MonthlyTotal> findByUserIdAndMonthBetweenOrderByMonth(Long userId, LocalDate startMonth, LocalDate endMonth);
+	
+	// The rows it deletes may still be in the persistence context; flush pending changes first
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM MonthlyTotal m WHERE m.userId = :userId")
+	void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,10 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.EXPT.ExpenseTracker.entity.TextIndexState;
+
+@Repository
+public interface TextIndexStateRepository extends JpaRepository<TextIndexState, Long> {
+}
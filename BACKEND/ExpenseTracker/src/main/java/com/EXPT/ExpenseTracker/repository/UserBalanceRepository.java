@@ -0,0 +1,30 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.EXPT.ExpenseTracker.entity.UserBalance;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface UserBalanceRepository extends JpaRepository<UserBalance, Long> {
+
+	// Serializes concurrent writers of the same user so deltas are not lost
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT b FROM UserBalance b WHERE b.userId = :userId")
+	Optional<UserBalance> findForUpdate(@Param("userId") Long userId);
+	
+	@Modifying
+	@Query(value = "UPDATE user_balance SET data_version = data_version + 1 WHERE user_id = :userId", nativeQuery = true)
+	int incrementDataVersion(@Param("userId") Long userId);
+	
+	@Query("SELECT b.dataVersion FROM UserBalance b WHERE b.userId = :userId")
+	Optional<Long> findDataVersion(@Param("userId") Long userId);
+}
@@ -0,0 +1,23 @@
+package com.EXPT.ExpenseTracker.services;
+
+import java.util.Collections;
+
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Security principal that also carries the database id, so services can
+ * scope queries to the current user without looking the user up again.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, String password) {
+        super(username, password, Collections.emptyList());
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -2,13 +2,18 @@ package com.EXPT.ExpenseTracker.services;
 
 import com.EXPT.ExpenseTracker.entity.User;
 import com.EXPT.ExpenseTracker.repository.UserRepository;
+import com.EXPT.ExpenseTracker.util.ExpiringCache;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -16,20 +21,83 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${security.principal-cache.max-size:10000}")
+    private int principalCacheMaxSize;
+
+    @Value("${security.principal-cache.ttl:PT5M}")
+    private Duration principalCacheTtl;
+
+    // username -> resolved principal, shared by JwtRequestFilter and the services
+    private ExpiringCache<String, CachedPrincipal> principalCache;
+
+    @PostConstruct
+    void initPrincipalCache() {
+        principalCache = new ExpiringCache<>(principalCacheMaxSize, principalCacheTtl.toMillis());
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                new ArrayList<>()
-        );
+        CachedPrincipal principal = principalCache.get(username);
+        if (principal == null) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+            principal = new CachedPrincipal(user.getId(), user.getUsername(), user.getPassword());
+            principalCache.put(username, principal);
+        }
+
+        // Always hand out a fresh instance: Spring Security erases credentials on the returned object
+        return new AuthenticatedUser(principal.id(), principal.username(), principal.password());
+    }
+
+    /**
+     * Principal for a user row the caller already loaded (login), cached so the
+     * first authenticated request after login does not query the users table.
+     */
+    public UserDetails cacheUser(User user) {
+        CachedPrincipal principal = new CachedPrincipal(user.getId(), user.getUsername(), user.getPassword());
+        principalCache.put(user.getUsername(), principal);
+        return new AuthenticatedUser(principal.id(), principal.username(), principal.password());
     }
 
     public User getUserByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
-}
\ No newline at end of file
+
+    /**
+     * Id of the authenticated user, taken from the principal set by JwtRequestFilter
+     * (falls back to the principal cache when the principal is only a name).
+     */
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.getId();
+        }
+        return ((AuthenticatedUser) loadUserByUsername(authentication.getName())).getId();
+    }
+
+    /** Uninitialized reference to the current user, usable for associations without a SELECT. */
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
+    /** Must be called whenever a user's username, password or status changes. */
+    public void evictUser(String username) {
+        principalCache.invalidate(username);
+    }
+
+    public long getPrincipalCacheHits() {
+        return principalCache.getHitCount();
+    }
+
+    public long getPrincipalCacheMisses() {
+        return principalCache.getMissCount();
+    }
+
+    public int getPrincipalCacheSize() {
+        return principalCache.size();
+    }
+
+    private record CachedPrincipal(Long id, String username, String password) {
+    }
+}
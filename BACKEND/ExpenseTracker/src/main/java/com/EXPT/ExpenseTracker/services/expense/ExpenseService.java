@@ -1,18 +1,26 @@
 package com.EXPT.ExpenseTracker.services.expense;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.EXPT.ExpenseTracker.dto.CursorPage;
 import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
-import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.repository.LedgerSearch;
 
 public interface ExpenseService {
 	
-	Expense postExpense(ExpenseDTO expenseDTO);
-	List<Expense> getAllExpenses();
+	ExpenseDTO postExpense(ExpenseDTO expenseDTO);
+	List<ExpenseDTO> getAllExpenses();
 	
-	Expense getExpenseById(Long id);
+	CursorPage<ExpenseDTO> getExpensePage(String cursor, int limit);
 	
-	Expense updateExpense(Long id, ExpenseDTO expenseDTO);
+	CursorPage<ExpenseDTO> searchExpenses(LedgerSearch search, String cursor, int limit);
+	
+	void streamAllExpenses(Consumer<ExpenseDTO> consumer);
+	
+	ExpenseDTO getExpenseById(Long id);
+	
+	ExpenseDTO updateExpense(Long id, ExpenseDTO expenseDTO);
 	
 	void deleteExpense(Long id);
 }
@@ -1,21 +1,33 @@
 package com.EXPT.ExpenseTracker.services.expense;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException; // ADDED
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.EXPT.ExpenseTracker.dto.CursorPage;
 import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
 import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
 import com.EXPT.ExpenseTracker.entity.User;
 import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.LedgerAmount;
+import com.EXPT.ExpenseTracker.repository.LedgerSearch;
 import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerCacheService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerColumns;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+import com.EXPT.ExpenseTracker.services.search.TextSearchService;
+import com.EXPT.ExpenseTracker.services.version.DataVersionService;
+import com.EXPT.ExpenseTracker.util.LedgerCursor;
+import com.EXPT.ExpenseTracker.util.LedgerSort;
+import com.EXPT.ExpenseTracker.util.SearchCursor;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor; 
@@ -25,22 +37,38 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ExpenseServiceImpl implements ExpenseService {
 
+	private static final int MAX_PAGE_SIZE = 500;
+
 	private final ExpenseRepository expenseRepository;
 	
+	private final RollupService rollupService;
+	
+	private final DataVersionService dataVersionService;
+	
+	private final TextSearchService textSearchService;
+	
+	private final LedgerCacheService ledgerCacheService;
+	
     // ADDED: Dependencies needed for security checks
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userDetailsService.getUserByUsername(username);
+        // Resolved from the cached principal; no users-table query per request
+        return userDetailsService.getCurrentUserReference();
     }
 	
-	public Expense postExpense(ExpenseDTO expenseDTO) {
+	@Transactional
+	public ExpenseDTO postExpense(ExpenseDTO expenseDTO) {
 		Expense expense = new Expense();
         expense.setUser(getCurrentUser()); // ADDED: Link to user
-		return saveOrUpdateExpense(expense, expenseDTO);
+		Expense saved = saveOrUpdateExpense(expense, expenseDTO);
+		rollupService.recordAdded(LedgerKind.EXPENSE, saved.getUser().getId(), saved.getId(), saved.getDate(), saved.getAmount());
+		textSearchService.indexEntry(LedgerKind.EXPENSE, saved.getUser().getId(), saved.getId(), saved.getTitle(), saved.getCategory(), saved.getDescription());
+		ledgerCacheService.recordSaved(LedgerKind.EXPENSE, saved.getUser().getId(), saved.getId(), saved.getDate(), saved.getAmount(),
+				saved.getCategory(), saved.getTitle(), saved.getDescription());
+		dataVersionService.bump(saved.getUser().getId());
+		return saved.getExpenseDto();
 	}
 	
 	private Expense saveOrUpdateExpense(Expense expense,ExpenseDTO expenseDTO) {
@@ -52,31 +80,92 @@ public class ExpenseServiceImpl implements ExpenseService {
         return expenseRepository.save(expense);
 	}
 	
-	public Expense updateExpense(Long id, ExpenseDTO expenseDTO) {
-        Optional<Expense> optionalExpense = expenseRepository.findById(id);
-        if (optionalExpense.isPresent()) {
-            Expense existingExpense = optionalExpense.get();
-            
-            // SECURITY CHECK (REQUIRED)
-            User currentUser = getCurrentUser();
-            if (!existingExpense.getUser().getId().equals(currentUser.getId())) {
-                throw new AccessDeniedException("Unauthorized access to update expense."); // THROW 403
-            }
-            
-            return saveOrUpdateExpense(existingExpense, expenseDTO);
-        } else {
-            throw new EntityNotFoundException("Expense not found with id: " + id);
+	// One locked read of the old date/amount for the rollups and one UPDATE, both scoped to the
+	// current user; the entity and its user are never loaded
+	@Transactional
+	public ExpenseDTO updateExpense(Long id, ExpenseDTO expenseDTO) {
+        Long userId = userDetailsService.getCurrentUserId();
+        LedgerAmount old = expenseRepository.findOwnedAmountForUpdate(id, userId)
+                .orElseThrow(() -> notOwned(id, "update"));
+        if (expenseRepository.updateOwned(id, userId, expenseDTO) == 0) {
+            throw notOwned(id, "update");
         }
-	}	
+        rollupService.recordChanged(LedgerKind.EXPENSE, userId, id, old.getDate(), old.getAmount(), expenseDTO.getDate(), expenseDTO.getAmount());
+        textSearchService.indexEntry(LedgerKind.EXPENSE, userId, id, expenseDTO.getTitle(), expenseDTO.getCategory(), expenseDTO.getDescription());
+        ledgerCacheService.recordSaved(LedgerKind.EXPENSE, userId, id, expenseDTO.getDate(), expenseDTO.getAmount(),
+                expenseDTO.getCategory(), expenseDTO.getTitle(), expenseDTO.getDescription());
+        dataVersionService.bump(userId);
+        return new ExpenseDTO(id, expenseDTO.getTitle(), expenseDTO.getDescription(), expenseDTO.getCategory(),
+                expenseDTO.getDate(), expenseDTO.getAmount());
+	}
+	
+	// Only runs once a user-scoped statement matched nothing: tells 404 from 403
+	private RuntimeException notOwned(Long id, String action) {
+        if (expenseRepository.existsById(id)) {
+            return new AccessDeniedException("Unauthorized access to " + action + " expense."); // THROW 403
+        }
+        return new EntityNotFoundException("Expense not found with id: " + id);
+	}
 	
-	public List<Expense> getAllExpenses() {
+	public List<ExpenseDTO> getAllExpenses() {
         User currentUser = getCurrentUser(); // ADDED
-		return expenseRepository.findByUserId(currentUser.getId()).stream() // MODIFIED to filter
-				.sorted(Comparator.comparing(Expense::getDate).reversed())
-				.collect(Collectors.toList());
+		return ledgerCacheService.read(currentUser.getId(),
+				ledger -> ledger.expenses().newestFirst(ledger.expenses().size(), Integer.MAX_VALUE, ledger.expenses()::toExpenseDto))
+				.orElseGet(() -> expenseRepository.findAllDtoByUserId(currentUser.getId()));
+	}
+	
+	public CursorPage<ExpenseDTO> getExpensePage(String cursor, int limit) {
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		User currentUser = getCurrentUser();
+		
+		// Fetch one extra row to know whether there is a next page
+		LedgerCursor position = cursor != null ? LedgerCursor.parse(cursor) : null;
+		List<ExpenseDTO> rows = ledgerCacheService.read(currentUser.getId(), ledger -> {
+			LedgerColumns expenses = ledger.expenses();
+			int end = position != null ? expenses.firstAtOrAfter(position.date(), position.id()) : expenses.size();
+			return expenses.newestFirst(end, limit + 1, expenses::toExpenseDto);
+		}).orElseGet(() -> position == null
+				? expenseRepository.findPageByUserId(currentUser.getId(), Limit.of(limit + 1))
+				: expenseRepository.findPageByUserIdBefore(currentUser.getId(), position.date(), position.id(), Limit.of(limit + 1)));
+		
+		String nextCursor = null;
+		if (rows.size() > limit) {
+			rows = rows.subList(0, limit);
+			ExpenseDTO last = rows.get(limit - 1);
+			nextCursor = new LedgerCursor(last.getDate(), last.getId()).toString();
+		}
+		return new CursorPage<>(rows, nextCursor);
 	}
 	
-	public Expense getExpenseById(Long id) {
+	// Same paging contract as getExpensePage, but filtered and ordered as the search asks
+	public CursorPage<ExpenseDTO> searchExpenses(LedgerSearch search, String cursor, int limit) {
+		if (limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		SearchCursor after = cursor != null ? SearchCursor.parse(cursor, search.sort()) : null;
+		List<ExpenseDTO> rows = expenseRepository.search(userDetailsService.getCurrentUserId(), search, after, limit + 1);
+		
+		String nextCursor = null;
+		if (rows.size() > limit) {
+			rows = rows.subList(0, limit);
+			ExpenseDTO last = rows.get(limit - 1);
+			Comparable<?> key = search.sort() == LedgerSort.AMOUNT ? last.getAmount() : last.getDate();
+			nextCursor = new SearchCursor(key, last.getId()).toString();
+		}
+		return new CursorPage<>(rows, nextCursor);
+	}
+	
+	@Transactional(readOnly = true)
+	public void streamAllExpenses(Consumer<ExpenseDTO> consumer) {
+		User currentUser = getCurrentUser();
+		try (Stream<ExpenseDTO> rows = expenseRepository.streamByUserId(currentUser.getId())) {
+			rows.forEach(consumer);
+		}
+	}
+	
+	public ExpenseDTO getExpenseById(Long id) {
 		Optional<Expense> optionalExpense = expenseRepository.findById(id);
 		if (optionalExpense.isPresent()) {
             Expense expense = optionalExpense.get();
@@ -87,27 +176,24 @@ public class ExpenseServiceImpl implements ExpenseService {
                 throw new AccessDeniedException("Unauthorized access to view expense."); // THROW 403
             }
             
-			return expense;
+			return expense.getExpenseDto();
 		}
 		else {
 			throw new EntityNotFoundException("Expense not found with id: " + id);
 		}
 	}
 	
+	@Transactional
 	public void deleteExpense(Long id) {
-		Optional<Expense> optionalExpense = expenseRepository.findById(id);
-		if (optionalExpense.isPresent()) {
-            Expense expense = optionalExpense.get();
-            
-            // SECURITY CHECK (REQUIRED)
-            User currentUser = getCurrentUser();
-            if (!expense.getUser().getId().equals(currentUser.getId())) {
-                throw new AccessDeniedException("Unauthorized access to delete expense."); // THROW 403
-            }
-            
-			expenseRepository.deleteById(id);
-		} else {
-			throw new EntityNotFoundException("Expense not found with id: " + id);
+		Long userId = userDetailsService.getCurrentUserId();
+		LedgerAmount old = expenseRepository.findOwnedAmountForUpdate(id, userId)
+				.orElseThrow(() -> notOwned(id, "delete"));
+		if (expenseRepository.deleteOwned(id, userId) == 0) {
+			throw notOwned(id, "delete");
 		}
+		rollupService.recordRemoved(LedgerKind.EXPENSE, userId, id, old.getDate(), old.getAmount());
+		textSearchService.removeEntry(LedgerKind.EXPENSE, userId, id);
+		ledgerCacheService.recordRemoved(LedgerKind.EXPENSE, userId, id);
+		dataVersionService.bump(userId);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.EXPT.ExpenseTracker.services.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+
+public interface ExportService {
+
+	/** Writes the current user's rows of one ledger to {@code out}, oldest first. */
+	void exportLedger(LedgerKind kind, LedgerFormat format, OutputStream out) throws IOException;
+	
+	/** Writes incomes and expenses together, oldest first, with a kind column. */
+	void exportCombinedLedger(LedgerFormat format, OutputStream out) throws IOException;
+}
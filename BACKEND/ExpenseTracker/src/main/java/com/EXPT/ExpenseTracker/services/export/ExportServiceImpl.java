@@ -0,0 +1,166 @@
+package com.EXPT.ExpenseTracker.services.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.EXPT.ExpenseTracker.dto.LedgerEntryDTO;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.util.CsvUtil;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+import com.EXPT.ExpenseTracker.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams a user's ledger from a forward-only, read-only JDBC cursor straight
+ * into the response. Rows are written as they are read, so memory use does not
+ * depend on how many rows the user has.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+	private static final String COLUMNS = "id, date, title, category, amount, description";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ObjectMapper objectMapper;
+	private final CustomUserDetailsService userDetailsService;
+	
+	@Value("${export.fetch-size:1000}")
+	private int fetchSize;
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportLedger(LedgerKind kind, LedgerFormat format, OutputStream out) throws IOException {
+		Long userId = userDetailsService.getCurrentUserId();
+		String sql = "SELECT " + COLUMNS + " FROM " + kind.getTableName()
+				+ " WHERE user_id = ? ORDER BY date, id";
+		stream(sql, new Long[] { userId }, format, false, out);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportCombinedLedger(LedgerFormat format, OutputStream out) throws IOException {
+		Long userId = userDetailsService.getCurrentUserId();
+		String sql = "SELECT 'income' AS kind, " + COLUMNS + " FROM " + LedgerKind.INCOME.getTableName() + " WHERE user_id = ?"
+				+ " UNION ALL "
+				+ "SELECT 'expense' AS kind, " + COLUMNS + " FROM " + LedgerKind.EXPENSE.getTableName() + " WHERE user_id = ?"
+				+ " ORDER BY date, kind, id";
+		stream(sql, new Long[] { userId, userId }, format, true, out);
+	}
+	
+	private void stream(String sql, Long[] params, LedgerFormat format, boolean withKind, OutputStream out) throws IOException {
+		RowWriter writer = format == LedgerFormat.CSV ? new CsvRowWriter(out, withKind) : new NdjsonRowWriter(out);
+		try {
+			jdbcTemplate.query(connection -> {
+				PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+				// MySQL only streams row by row with MIN_VALUE; other drivers honour a positive fetch size
+				boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+				statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+				for (int i = 0; i < params.length; i++) {
+					statement.setLong(i + 1, params[i]);
+				}
+				return statement;
+			}, (RowCallbackHandler) rs -> writer.write(toEntry(rs, withKind)));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.close();
+	}
+	
+	private static LedgerEntryDTO toEntry(ResultSet rs, boolean withKind) throws SQLException {
+		int amount = rs.getInt("amount");
+		boolean amountMissing = rs.wasNull();
+		return new LedgerEntryDTO(
+				withKind ? rs.getString("kind") : null,
+				rs.getLong("id"),
+				rs.getObject("date", LocalDate.class),
+				rs.getString("title"),
+				rs.getString("category"),
+				amountMissing ? null : amount,
+				rs.getString("description"));
+	}
+	
+	private interface RowWriter {
+		void write(LedgerEntryDTO entry);
+		
+		void close() throws IOException;
+	}
+	
+	private static class CsvRowWriter implements RowWriter {
+		
+		private final BufferedWriter out;
+		private final boolean withKind;
+		
+		CsvRowWriter(OutputStream out, boolean withKind) throws IOException {
+			this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			this.withKind = withKind;
+			// same column names the CSV import understands
+			this.out.write(withKind ? "kind,id,date,title,category,amount,description\n" : "id,date,title,category,amount,description\n");
+		}
+		
+		@Override
+		public void write(LedgerEntryDTO entry) {
+			try {
+				if (withKind) {
+					out.write(entry.kind());
+					out.write(',');
+				}
+				out.write(Long.toString(entry.id()));
+				out.write(',');
+				out.write(entry.date() != null ? entry.date().toString() : "");
+				out.write(',');
+				out.write(CsvUtil.escape(entry.title()));
+				out.write(',');
+				out.write(CsvUtil.escape(entry.category()));
+				out.write(',');
+				out.write(entry.amount() != null ? entry.amount().toString() : "");
+				out.write(',');
+				out.write(CsvUtil.escape(entry.description()));
+				out.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		@Override
+		public void close() throws IOException {
+			out.flush();
+		}
+	}
+	
+	private class NdjsonRowWriter implements RowWriter {
+		
+		private final NdjsonWriter out;
+		
+		NdjsonRowWriter(OutputStream out) throws IOException {
+			this.out = new NdjsonWriter(objectMapper, out);
+		}
+		
+		@Override
+		public void write(LedgerEntryDTO entry) {
+			out.write(entry);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+}
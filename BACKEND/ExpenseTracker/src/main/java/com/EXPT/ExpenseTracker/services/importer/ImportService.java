@@ -0,0 +1,13 @@
+package com.EXPT.ExpenseTracker.services.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.EXPT.ExpenseTracker.dto.ImportResultDTO;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+
+public interface ImportService {
+
+	ImportResultDTO importLedger(LedgerKind kind, LedgerFormat format, InputStream in) throws IOException;
+}
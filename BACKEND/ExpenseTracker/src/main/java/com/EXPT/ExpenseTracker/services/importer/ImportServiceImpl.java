@@ -0,0 +1,223 @@
+package com.EXPT.ExpenseTracker.services.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.EXPT.ExpenseTracker.dto.ImportResultDTO;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerCacheService;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+import com.EXPT.ExpenseTracker.services.search.TextSearchService;
+import com.EXPT.ExpenseTracker.services.version.DataVersionService;
+import com.EXPT.ExpenseTracker.util.CsvUtil;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams CSV or NDJSON rows into the expense/income tables. Rows are parsed
+ * one record at a time (a CSV record spans lines when a quoted field holds a
+ * line break) and written with plain JDBC batches, because IDENTITY ids
+ * stop Hibernate from batching inserts. Every chunk runs in its own
+ * transaction, so a failing chunk does not undo the ones before it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportServiceImpl implements ImportService {
+
+	private static final int MAX_REPORTED_ERRORS = 100;
+	private static final int MAX_TEXT_LENGTH = 255;
+	// no valid record comes close; stops a stray quote from pulling the rest of the file into one record
+	private static final int MAX_CSV_RECORD_LENGTH = 8 * 1024;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final CustomUserDetailsService userDetailsService;
+	private final RollupService rollupService;
+	private final DataVersionService dataVersionService;
+	private final TextSearchService textSearchService;
+	private final LedgerCacheService ledgerCacheService;
+	
+	// rows per JDBC batch (add rewriteBatchedStatements=true to the MySQL URL to get multi-row inserts)
+	@Value("${import.batch-size:500}")
+	private int batchSize;
+	
+	// rows per transaction
+	@Value("${import.chunk-size:5000}")
+	private int chunkSize;
+
+	@Override
+	public ImportResultDTO importLedger(LedgerKind kind, LedgerFormat format, InputStream in) throws IOException {
+		Long userId = userDetailsService.getCurrentUserId();
+		String sql = "INSERT INTO " + kind.getTableName()
+				+ " (title, description, category, date, amount, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+		ObjectReader rowReader = objectMapper.readerFor(Row.class);
+		
+		long start = System.nanoTime();
+		ImportResultDTO result = new ImportResultDTO();
+		List<Row> chunk = new ArrayList<>(chunkSize);
+		long chunkFirstLine = 0;
+		
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			Map<String, Integer> columns = null;
+			String line;
+			long lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				long recordLine = lineNumber;
+				if (format == LedgerFormat.CSV) {
+					String next;
+					while (CsvUtil.endsInsideQuotes(line) && line.length() < MAX_CSV_RECORD_LENGTH
+							&& (next = reader.readLine()) != null) {
+						lineNumber++;
+						line = line + '\n' + next;
+					}
+				}
+				if (line.isBlank()) {
+					continue;
+				}
+				if (format == LedgerFormat.CSV && columns == null) {
+					columns = readHeader(line);
+					continue;
+				}
+				
+				Row row;
+				try {
+					row = format == LedgerFormat.CSV ? parseCsvRow(line, columns) : rowReader.readValue(line);
+					validate(row);
+				} catch (IllegalArgumentException | DateTimeException | JsonProcessingException e) {
+					reject(result, recordLine, 1, e.getMessage());
+					continue;
+				}
+				
+				if (chunk.isEmpty()) {
+					chunkFirstLine = recordLine;
+				}
+				chunk.add(row);
+				if (chunk.size() >= chunkSize) {
+					flush(kind, sql, userId, chunk, chunkFirstLine, lineNumber, result);
+				}
+			}
+			flush(kind, sql, userId, chunk, chunkFirstLine, lineNumber, result);
+		}
+		
+		long elapsedNanos = System.nanoTime() - start;
+		result.setDurationMs(elapsedNanos / 1_000_000);
+		result.setRowsPerSecond(elapsedNanos > 0 ? result.getImported() * 1_000_000_000.0 / elapsedNanos : 0);
+		return result;
+	}
+	
+	private void flush(LedgerKind kind, String sql, Long userId, List<Row> chunk, long firstLine, long lastLine, ImportResultDTO result) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				// generated ids aren't returned by the batch, so the new rows are found above this one
+				long lastId = textSearchService.lastEntryId(kind);
+				jdbcTemplate.batchUpdate(sql, chunk, batchSize, (ps, row) -> {
+					ps.setString(1, row.title());
+					ps.setString(2, row.description());
+					ps.setString(3, row.category());
+					ps.setObject(4, row.date());
+					ps.setInt(5, row.amount());
+					ps.setLong(6, userId);
+				});
+				// Same transaction, so a failed chunk leaves the rollups untouched too
+				rollupService.recordAddedBatch(kind, userId,
+						chunk.stream().map(row -> new RollupService.DatedAmount(row.date(), row.amount())).toList());
+				textSearchService.indexEntriesAfter(kind, userId, lastId);
+				// the generated ids aren't known here, so the user is reloaded on their next read
+				ledgerCacheService.invalidate(userId);
+				dataVersionService.bump(userId);
+			});
+			result.setImported(result.getImported() + chunk.size());
+		} catch (DataAccessException e) {
+			reject(result, firstLine, chunk.size(),
+					"Lines " + firstLine + "-" + lastLine + " not imported: " + e.getMostSpecificCause().getMessage());
+		}
+		chunk.clear();
+	}
+	
+	private static void reject(ImportResultDTO result, long line, int rows, String message) {
+		result.setRejected(result.getRejected() + rows);
+		if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+			result.getErrors().add(new ImportResultDTO.RowError(line, message));
+		}
+	}
+	
+	private static Map<String, Integer> readHeader(String line) {
+		// tolerate a UTF-8 byte order mark on the first line
+		List<String> names = CsvUtil.parseLine(line.startsWith("\uFEFF") ? line.substring(1) : line);
+		Map<String, Integer> columns = new HashMap<>();
+		for (int i = 0; i < names.size(); i++) {
+			columns.put(names.get(i).trim().toLowerCase(), i);
+		}
+		for (String required : List.of("title", "amount", "date")) {
+			if (!columns.containsKey(required)) {
+				throw new IllegalArgumentException("CSV header is missing the '" + required + "' column");
+			}
+		}
+		return columns;
+	}
+	
+	private static Row parseCsvRow(String line, Map<String, Integer> columns) {
+		List<String> fields = CsvUtil.parseLine(line);
+		String amount = field(fields, columns, "amount");
+		String date = field(fields, columns, "date");
+		return new Row(
+				field(fields, columns, "title"),
+				amount != null ? Integer.valueOf(amount.trim()) : null,
+				date != null ? LocalDate.parse(date.trim()) : null,
+				field(fields, columns, "category"),
+				field(fields, columns, "description"));
+	}
+	
+	private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+		Integer index = columns.get(name);
+		if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+			return null;
+		}
+		return fields.get(index);
+	}
+	
+	private static void validate(Row row) {
+		if (row.title() == null || row.title().isBlank()) {
+			throw new IllegalArgumentException("title is required");
+		}
+		if (row.amount() == null) {
+			throw new IllegalArgumentException("amount is required");
+		}
+		if (row.date() == null) {
+			throw new IllegalArgumentException("date is required");
+		}
+		for (String text : new String[] { row.title(), row.category(), row.description() }) {
+			if (text != null && text.length() > MAX_TEXT_LENGTH) {
+				throw new IllegalArgumentException("text fields are limited to " + MAX_TEXT_LENGTH + " characters");
+			}
+		}
+	}
+	
+	private record Row(String title, Integer amount, LocalDate date, String category, String description) {
+	}
+}
@@ -1,16 +1,24 @@
 package com.EXPT.ExpenseTracker.services.income;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.EXPT.ExpenseTracker.dto.CursorPage;
 import com.EXPT.ExpenseTracker.dto.IncomeDTO;
-import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.repository.LedgerSearch;
 
 public interface IncomeService {
-	Income postIncome(IncomeDTO incomeDTO);
+	IncomeDTO postIncome(IncomeDTO incomeDTO);
 	
 	List<IncomeDTO> getAllIncomes();
 	
-	Income updateIncome(Long id, IncomeDTO incomeDTO);
+	CursorPage<IncomeDTO> getIncomePage(String cursor, int limit);
+	
+	CursorPage<IncomeDTO> searchIncomes(LedgerSearch search, String cursor, int limit);
+	
+	void streamAllIncomes(Consumer<IncomeDTO> consumer);
+	
+	IncomeDTO updateIncome(Long id, IncomeDTO incomeDTO);
 	
 	IncomeDTO getIncomeById(Long id);
 	
@@ -1,36 +1,66 @@
 package com.EXPT.ExpenseTracker.services.income;
 
+import com.EXPT.ExpenseTracker.dto.CursorPage;
 import com.EXPT.ExpenseTracker.dto.IncomeDTO;
 import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
 import com.EXPT.ExpenseTracker.entity.User;
 import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.repository.LedgerAmount;
+import com.EXPT.ExpenseTracker.repository.LedgerSearch;
 import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerCacheService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerColumns;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+import com.EXPT.ExpenseTracker.services.search.TextSearchService;
+import com.EXPT.ExpenseTracker.services.version.DataVersionService;
+import com.EXPT.ExpenseTracker.util.LedgerCursor;
+import com.EXPT.ExpenseTracker.util.LedgerSort;
+import com.EXPT.ExpenseTracker.util.SearchCursor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityNotFoundException;
 
 @Service
 public class IncomeServiceImpl implements IncomeService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private IncomeRepository incomeRepository;
 
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private TextSearchService textSearchService;
+
+    @Autowired
+    private LedgerCacheService ledgerCacheService;
+
     // Helper method to get current logged-in user
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userDetailsService.getUserByUsername(username);
+        // Resolved from the cached principal; no users-table query per request
+        return userDetailsService.getCurrentUserReference();
     }
 
     @Override
-    public Income postIncome(IncomeDTO incomeDTO) {
+    @Transactional
+    public IncomeDTO postIncome(IncomeDTO incomeDTO) {
         Income income = new Income();
         income.setTitle(incomeDTO.getTitle());
         income.setAmount(incomeDTO.getAmount());
@@ -38,37 +68,95 @@ public class IncomeServiceImpl implements IncomeService {
         income.setCategory(incomeDTO.getCategory());
         income.setDescription(incomeDTO.getDescription());
         income.setUser(getCurrentUser()); // Link to current user
-        return incomeRepository.save(income);
+        Income saved = incomeRepository.save(income);
+        rollupService.recordAdded(LedgerKind.INCOME, saved.getUser().getId(), saved.getId(), saved.getDate(), saved.getAmount());
+        textSearchService.indexEntry(LedgerKind.INCOME, saved.getUser().getId(), saved.getId(), saved.getTitle(), saved.getCategory(), saved.getDescription());
+        ledgerCacheService.recordSaved(LedgerKind.INCOME, saved.getUser().getId(), saved.getId(), saved.getDate(), saved.getAmount(),
+            saved.getCategory(), saved.getTitle(), saved.getDescription());
+        dataVersionService.bump(saved.getUser().getId());
+        return mapToDTO(saved);
     }
 
     @Override
     public List<IncomeDTO> getAllIncomes() {
         User currentUser = getCurrentUser();
-        // Only get incomes for current user
-        List<Income> incomes = incomeRepository.findByUserId(currentUser.getId());
-        return incomes.stream()
-            .map(this::mapToDTO)
-            .collect(Collectors.toList());
+        // Only get incomes for current user, projected straight into DTOs
+        return ledgerCacheService.read(currentUser.getId(),
+                ledger -> ledger.incomes().newestFirst(ledger.incomes().size(), Integer.MAX_VALUE, ledger.incomes()::toIncomeDto))
+            .orElseGet(() -> incomeRepository.findAllDtoByUserId(currentUser.getId()));
     }
 
     @Override
-    public Income updateIncome(Long id, IncomeDTO incomeDTO) {
-        Income income = incomeRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Income not found"));
-        
-        // Security check: Make sure income belongs to current user
+    public CursorPage<IncomeDTO> getIncomePage(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
         User currentUser = getCurrentUser();
-        if (!income.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access");
+
+        // Fetch one extra row to know whether there is a next page
+        LedgerCursor position = cursor != null ? LedgerCursor.parse(cursor) : null;
+        List<IncomeDTO> rows = ledgerCacheService.read(currentUser.getId(), ledger -> {
+            LedgerColumns incomes = ledger.incomes();
+            int end = position != null ? incomes.firstAtOrAfter(position.date(), position.id()) : incomes.size();
+            return incomes.newestFirst(end, limit + 1, incomes::toIncomeDto);
+        }).orElseGet(() -> position == null
+            ? incomeRepository.findPageByUserId(currentUser.getId(), Limit.of(limit + 1))
+            : incomeRepository.findPageByUserIdBefore(currentUser.getId(), position.date(), position.id(), Limit.of(limit + 1)));
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            IncomeDTO last = rows.get(limit - 1);
+            nextCursor = new LedgerCursor(last.getDate(), last.getId()).toString();
         }
-        
-        income.setTitle(incomeDTO.getTitle());
-        income.setAmount(incomeDTO.getAmount());
-        income.setDate(incomeDTO.getDate());
-        income.setCategory(incomeDTO.getCategory());
-        income.setDescription(incomeDTO.getDescription());
-        
-        return incomeRepository.save(income);
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    // Same paging contract as getIncomePage, but filtered and ordered as the search asks
+    @Override
+    public CursorPage<IncomeDTO> searchIncomes(LedgerSearch search, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        SearchCursor after = cursor != null ? SearchCursor.parse(cursor, search.sort()) : null;
+        List<IncomeDTO> rows = incomeRepository.search(userDetailsService.getCurrentUserId(), search, after, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            IncomeDTO last = rows.get(limit - 1);
+            Comparable<?> key = search.sort() == LedgerSort.AMOUNT ? last.getAmount() : last.getDate();
+            nextCursor = new SearchCursor(key, last.getId()).toString();
+        }
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllIncomes(Consumer<IncomeDTO> consumer) {
+        User currentUser = getCurrentUser();
+        try (Stream<IncomeDTO> rows = incomeRepository.streamByUserId(currentUser.getId())) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional
+    public IncomeDTO updateIncome(Long id, IncomeDTO incomeDTO) {
+        // One locked read of the old date/amount for the rollups and one UPDATE, both scoped to the current user
+        Long userId = userDetailsService.getCurrentUserId();
+        LedgerAmount old = incomeRepository.findOwnedAmountForUpdate(id, userId)
+            .orElseThrow(() -> notOwned(id));
+        if (incomeRepository.updateOwned(id, userId, incomeDTO) == 0) {
+            throw notOwned(id);
+        }
+        rollupService.recordChanged(LedgerKind.INCOME, userId, id, old.getDate(), old.getAmount(), incomeDTO.getDate(), incomeDTO.getAmount());
+        textSearchService.indexEntry(LedgerKind.INCOME, userId, id, incomeDTO.getTitle(), incomeDTO.getCategory(), incomeDTO.getDescription());
+        ledgerCacheService.recordSaved(LedgerKind.INCOME, userId, id, incomeDTO.getDate(), incomeDTO.getAmount(),
+            incomeDTO.getCategory(), incomeDTO.getTitle(), incomeDTO.getDescription());
+        dataVersionService.bump(userId);
+        return new IncomeDTO(id, incomeDTO.getTitle(), incomeDTO.getAmount(), incomeDTO.getDate(),
+            incomeDTO.getCategory(), incomeDTO.getDescription());
     }
 
     @Override
@@ -86,17 +174,26 @@ public class IncomeServiceImpl implements IncomeService {
     }
 
     @Override
+    @Transactional
     public void deleteIncome(Long id) {
-        Income income = incomeRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Income not found"));
-        
-        // Security check
-        User currentUser = getCurrentUser();
-        if (!income.getUser().getId().equals(currentUser.getId())) {
-            throw new RuntimeException("Unauthorized access");
+        Long userId = userDetailsService.getCurrentUserId();
+        LedgerAmount old = incomeRepository.findOwnedAmountForUpdate(id, userId)
+            .orElseThrow(() -> notOwned(id));
+        if (incomeRepository.deleteOwned(id, userId) == 0) {
+            throw notOwned(id);
         }
-        
-        incomeRepository.deleteById(id);
+        rollupService.recordRemoved(LedgerKind.INCOME, userId, id, old.getDate(), old.getAmount());
+        textSearchService.removeEntry(LedgerKind.INCOME, userId, id);
+        ledgerCacheService.recordRemoved(LedgerKind.INCOME, userId, id);
+        dataVersionService.bump(userId);
+    }
+
+    // Only runs once a user-scoped statement matched nothing: tells 404 from 403
+    private RuntimeException notOwned(Long id) {
+        if (incomeRepository.existsById(id)) {
+            return new AccessDeniedException("Unauthorized access");
+        }
+        return new EntityNotFoundException("Income not found");
     }
 
     private IncomeDTO mapToDTO(Income income) {
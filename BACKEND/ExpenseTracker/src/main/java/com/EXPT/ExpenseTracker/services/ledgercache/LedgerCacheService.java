@@ -0,0 +1,46 @@
+package com.EXPT.ExpenseTracker.services.ledgercache;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+
+/**
+ * Optional in-memory copy of the ledgers of the most active users, held as
+ * {@link LedgerColumns} and bounded by estimated heap size, least recently
+ * used users first out. Writes go through to it after commit, so the stats,
+ * chart and list reads of a cached user need no database round trip.
+ * Disabled unless {@code ledger-cache.enabled=true}.
+ * <p>
+ * Write-through is exact for a single instance only. Another instance's writes
+ * reach a cached ledger only when it is reloaded, at the latest after
+ * {@code ledger-cache.max-age}.
+ */
+public interface LedgerCacheService {
+
+	/**
+	 * Runs {@code reader} on the user's cached ledger under its read lock. Empty when the
+	 * cache is off or the user isn't cached (yet); the caller then reads the database.
+	 * A user is loaded once they missed {@code ledger-cache.admit-after} times.
+	 */
+	<T> Optional<T> read(Long userId, Function<UserLedger, T> reader);
+
+	/** Inserts or replaces the entry in the user's cached ledger once the surrounding transaction commits. */
+	void recordSaved(LedgerKind kind, Long userId, Long id, LocalDate date, Integer amount, String category,
+			String title, String description);
+
+	/** Removes the entry from the user's cached ledger once the surrounding transaction commits. */
+	void recordRemoved(LedgerKind kind, Long userId, Long id);
+
+	/** Drops the user's cached ledger after commit, for writes whose rows aren't known one by one (bulk import). */
+	void invalidate(Long userId);
+
+	int getUserCount();
+
+	long getEstimatedBytes();
+
+	long getHitCount();
+
+	long getMissCount();
+}
@@ -0,0 +1,364 @@
+package com.EXPT.ExpenseTracker.services.ledgercache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.util.ExpiringCache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Users are loaded with the two existing newest-first DTO streams and kept in
+ * an access-ordered map; the running byte estimate evicts from its cold end.
+ * A write that lands while a user is being loaded marks that load stale, so a
+ * copy that may have missed it is never installed.
+ * <p>
+ * Write-through only sees the writes of this instance. With several instances
+ * a ledger can miss writes taken elsewhere until it is older than
+ * {@code ledger-cache.max-age} and reloaded, so that is how stale they may get.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerCacheServiceImpl implements LedgerCacheService {
+
+	private static final int MAX_TRACKED_USERS = 10000;
+
+	// a miss count that can't reach the admission threshold within the window
+	private static final int NOT_ADMITTED = Integer.MIN_VALUE / 2;
+
+	private final ExpenseRepository expenseRepository;
+	private final IncomeRepository incomeRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${ledger-cache.enabled:false}")
+	private boolean enabled;
+
+	@Value("${ledger-cache.max-size:256MB}")
+	private DataSize maxSize;
+
+	@Value("${ledger-cache.admit-after:3}")
+	private int admitAfter;
+
+	@Value("${ledger-cache.admit-window:PT10M}")
+	private Duration admitWindow;
+
+	@Value("${ledger-cache.max-age:PT5M}")
+	private Duration maxAge;
+
+	// access order, so iteration starts at the least recently used user
+	private final LinkedHashMap<Long, UserLedger> ledgers = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<Long, Load> loads = new HashMap<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private long totalBytes;
+
+	// user id -> misses within the admission window
+	private ExpiringCache<Long, AtomicInteger> missCounts;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	@PostConstruct
+	void initMissCounts() {
+		missCounts = new ExpiringCache<>(MAX_TRACKED_USERS, admitWindow.toMillis());
+	}
+
+	@Override
+	public <T> Optional<T> read(Long userId, Function<UserLedger, T> reader) {
+		if (!enabled) {
+			return Optional.empty();
+		}
+		UserLedger ledger;
+		boolean expired = false;
+		lock.lock();
+		try {
+			ledger = ledgers.get(userId);
+			if (ledger != null && System.nanoTime() - ledger.loadedAt > maxAge.toNanos()) {
+				ledgers.remove(userId);
+				drop(ledger);
+				ledger = null;
+				expired = true;
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (ledger != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+			// An expired user was admitted already; reload it straight away
+			if (!expired && !admit(userId)) {
+				return Optional.empty();
+			}
+			ledger = load(userId);
+			if (ledger == null) {
+				return Optional.empty();
+			}
+		}
+
+		ledger.lock.readLock().lock();
+		try {
+			// Evicted after the lookup: a write may already have gone past it
+			if (ledger.evicted) {
+				return Optional.empty();
+			}
+			return Optional.of(reader.apply(ledger));
+		} finally {
+			ledger.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void recordSaved(LedgerKind kind, Long userId, Long id, LocalDate date, Integer amount, String category,
+			String title, String description) {
+		if (enabled) {
+			afterCommit(() -> apply(userId, ledger -> ledger.columns(kind).upsert(id, date, amount, category, title, description)));
+		}
+	}
+
+	@Override
+	public void recordRemoved(LedgerKind kind, Long userId, Long id) {
+		if (enabled) {
+			afterCommit(() -> apply(userId, ledger -> ledger.columns(kind).remove(id)));
+		}
+	}
+
+	@Override
+	public void invalidate(Long userId) {
+		if (enabled) {
+			afterCommit(() -> {
+				lock.lock();
+				try {
+					markLoadStale(userId);
+					UserLedger ledger = ledgers.remove(userId);
+					if (ledger != null) {
+						drop(ledger);
+					}
+				} finally {
+					lock.unlock();
+				}
+			});
+		}
+	}
+
+	@Override
+	public int getUserCount() {
+		lock.lock();
+		try {
+			return ledgers.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long getEstimatedBytes() {
+		lock.lock();
+		try {
+			return totalBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	@Override
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	void setMaxSize(DataSize maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	void setMaxAge(Duration maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	// Only users who keep coming back are worth a full load; one-off visitors stay on the database
+	private boolean admit(Long userId) {
+		AtomicInteger count = missCounts.get(userId);
+		if (count == null) {
+			count = new AtomicInteger();
+			missCounts.put(userId, count);
+		}
+		return count.incrementAndGet() >= admitAfter;
+	}
+
+	// Installed ledger, or null when another request is loading the user, a write raced the
+	// load or the ledger doesn't fit
+	private UserLedger load(Long userId) {
+		Load load = new Load();
+		lock.lock();
+		try {
+			if (loads.putIfAbsent(userId, load) != null) {
+				return null;
+			}
+		} finally {
+			lock.unlock();
+		}
+		try {
+			long limit = maxSize.toBytes();
+			UserLedger ledger = transactionTemplate.execute(status -> {
+				LedgerColumns expenses = new LedgerColumns(16);
+				try (Stream<ExpenseDTO> rows = expenseRepository.streamByUserId(userId)) {
+					Iterator<ExpenseDTO> it = rows.iterator();
+					while (it.hasNext() && expenses.estimatedBytes() <= limit) {
+						ExpenseDTO row = it.next();
+						expenses.append(row.getId(), row.getDate(), row.getAmount(), row.getCategory(), row.getTitle(), row.getDescription());
+					}
+				}
+				LedgerColumns incomes = new LedgerColumns(16);
+				try (Stream<IncomeDTO> rows = incomeRepository.streamByUserId(userId)) {
+					Iterator<IncomeDTO> it = rows.iterator();
+					while (it.hasNext() && expenses.estimatedBytes() + incomes.estimatedBytes() <= limit) {
+						IncomeDTO row = it.next();
+						incomes.append(row.getId(), row.getDate(), row.getAmount(), row.getCategory(), row.getTitle(), row.getDescription());
+					}
+				}
+				expenses.reverse();
+				incomes.reverse();
+				return new UserLedger(expenses, incomes);
+			});
+			long bytes = ledger.estimatedBytes();
+
+			lock.lock();
+			try {
+				if (load.stale) {
+					return null;
+				}
+				if (bytes > limit) {
+					missCounts.put(userId, new AtomicInteger(NOT_ADMITTED));
+					return null;
+				}
+				missCounts.invalidate(userId);
+				ledger.loadedAt = System.nanoTime();
+				ledger.accountedBytes = bytes;
+				ledgers.put(userId, ledger);
+				totalBytes += bytes;
+				evictOverflow();
+				return ledger;
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			lock.lock();
+			try {
+				loads.remove(userId, load);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private void apply(Long userId, Consumer<UserLedger> change) {
+		UserLedger ledger;
+		lock.lock();
+		try {
+			markLoadStale(userId);
+			ledger = ledgers.get(userId);
+		} finally {
+			lock.unlock();
+		}
+		if (ledger == null) {
+			return;
+		}
+
+		ledger.lock.writeLock().lock();
+		try {
+			change.accept(ledger);
+		} finally {
+			ledger.lock.writeLock().unlock();
+		}
+
+		lock.lock();
+		try {
+			if (!ledger.evicted) {
+				// Measured under the cache lock so concurrent writes to one user can't account out of order
+				long bytes;
+				ledger.lock.readLock().lock();
+				try {
+					bytes = ledger.estimatedBytes();
+				} finally {
+					ledger.lock.readLock().unlock();
+				}
+				totalBytes += bytes - ledger.accountedBytes;
+				ledger.accountedBytes = bytes;
+				evictOverflow();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Callers hold the cache lock
+	private void markLoadStale(Long userId) {
+		Load load = loads.get(userId);
+		if (load != null) {
+			load.stale = true;
+		}
+	}
+
+	// Callers hold the cache lock
+	private void evictOverflow() {
+		Iterator<UserLedger> it = ledgers.values().iterator();
+		while (totalBytes > maxSize.toBytes() && it.hasNext()) {
+			UserLedger eldest = it.next();
+			it.remove();
+			drop(eldest);
+		}
+	}
+
+	// Callers hold the cache lock
+	private void drop(UserLedger ledger) {
+		ledger.evicted = true;
+		totalBytes -= ledger.accountedBytes;
+		ledger.accountedBytes = 0;
+	}
+
+	// Applying before commit would expose rows a rollback takes back
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	private static final class Load {
+		// only read and written under the cache lock
+		boolean stale;
+	}
+}
@@ -0,0 +1,302 @@
+package com.EXPT.ExpenseTracker.services.ledgercache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+
+/**
+ * One user's expenses or incomes as parallel arrays sorted by (date, id):
+ * ids, epoch days, amounts and dictionary-encoded category ids, with title and
+ * description alongside for the list responses. Not thread-safe; the cache
+ * guards every access with the owning user's lock.
+ */
+public final class LedgerColumns {
+
+	// null dates sort first, as NULL does in MySQL; a null amount is left out of every aggregate
+	static final int NO_DATE = Integer.MIN_VALUE;
+	static final int NO_AMOUNT = Integer.MIN_VALUE;
+	static final int NO_CATEGORY = -1;
+
+	// per row: id, day, amount, category id and two references; per string: header plus chars
+	private static final long ROW_BYTES = 8 + 4 + 4 + 4 + 4 + 4;
+	private static final long STRING_BYTES = 40;
+
+	private long[] ids;
+	private int[] days;
+	private int[] amounts;
+	private int[] categoryIds;
+	private String[] titles;
+	private String[] descriptions;
+	private int size;
+
+	private final List<String> categories = new ArrayList<>();
+	private final Map<String, Integer> categoryIndex = new HashMap<>();
+
+	private long stringBytes;
+
+	LedgerColumns(int capacity) {
+		int initial = Math.max(capacity, 16);
+		ids = new long[initial];
+		days = new int[initial];
+		amounts = new int[initial];
+		categoryIds = new int[initial];
+		titles = new String[initial];
+		descriptions = new String[initial];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long id(int row) {
+		return ids[row];
+	}
+
+	public LocalDate date(int row) {
+		return days[row] != NO_DATE ? LocalDate.ofEpochDay(days[row]) : null;
+	}
+
+	public int epochDay(int row) {
+		return days[row];
+	}
+
+	public boolean hasAmount(int row) {
+		return amounts[row] != NO_AMOUNT;
+	}
+
+	/** The raw amount; only meaningful when {@link #hasAmount(int)}. */
+	public int amountValue(int row) {
+		return amounts[row];
+	}
+
+	public Integer amount(int row) {
+		return amounts[row] != NO_AMOUNT ? amounts[row] : null;
+	}
+
+	public String category(int row) {
+		return categoryIds[row] != NO_CATEGORY ? categories.get(categoryIds[row]) : null;
+	}
+
+	public String title(int row) {
+		return titles[row];
+	}
+
+	public String description(int row) {
+		return descriptions[row];
+	}
+
+	public ExpenseDTO toExpenseDto(int row) {
+		return new ExpenseDTO(id(row), title(row), description(row), category(row), date(row), amount(row));
+	}
+
+	public IncomeDTO toIncomeDto(int row) {
+		return new IncomeDTO(id(row), title(row), amount(row), date(row), category(row), description(row));
+	}
+
+	/** Up to {@code limit} of the rows before index {@code end}, newest first like the list endpoints. */
+	public <T> List<T> newestFirst(int end, int limit, IntFunction<T> mapper) {
+		List<T> rows = new ArrayList<>(Math.min(end, limit));
+		for (int row = end - 1; row >= 0 && rows.size() < limit; row--) {
+			rows.add(mapper.apply(row));
+		}
+		return rows;
+	}
+
+	/** Index of the first row dated on or after {@code date}. */
+	public int firstOnOrAfter(LocalDate date) {
+		return firstAtOrAfter(toDay(date), Long.MIN_VALUE);
+	}
+
+	/** Index of the first row dated after {@code date}. */
+	public int firstAfter(LocalDate date) {
+		return firstAtOrAfter(toDay(date), Long.MAX_VALUE);
+	}
+
+	/** Index of the first row at or after the keyset position (date, id). */
+	public int firstAtOrAfter(LocalDate date, long id) {
+		return firstAtOrAfter(toDay(date), id);
+	}
+
+	/** Sum of the amounts in rows [from, to). */
+	public long sum(int from, int to) {
+		long sum = 0;
+		for (int row = from; row < to; row++) {
+			if (amounts[row] != NO_AMOUNT) {
+				sum += amounts[row];
+			}
+		}
+		return sum;
+	}
+
+	/** Smallest amount, or null when no row has one. */
+	public Integer min() {
+		int min = Integer.MAX_VALUE;
+		boolean found = false;
+		for (int row = 0; row < size; row++) {
+			if (amounts[row] != NO_AMOUNT) {
+				min = Math.min(min, amounts[row]);
+				found = true;
+			}
+		}
+		return found ? min : null;
+	}
+
+	/** Largest amount, or null when no row has one. */
+	public Integer max() {
+		int max = Integer.MIN_VALUE;
+		boolean found = false;
+		for (int row = 0; row < size; row++) {
+			if (amounts[row] != NO_AMOUNT) {
+				max = Math.max(max, amounts[row]);
+				found = true;
+			}
+		}
+		return found ? max : null;
+	}
+
+	/** Heap taken by the arrays, the strings they reference and the category dictionary, roughly. */
+	public long estimatedBytes() {
+		return ids.length * ROW_BYTES + stringBytes + categories.size() * STRING_BYTES * 2;
+	}
+
+	/**
+	 * Adds a row at the end. Used while loading, with rows in the repositories'
+	 * newest-first order, followed by one {@link #reverse()}.
+	 */
+	void append(long id, LocalDate date, Integer amount, String category, String title, String description) {
+		ensureCapacity(size + 1);
+		set(size++, id, date, amount, category, title, description);
+	}
+
+	void reverse() {
+		for (int low = 0, high = size - 1; low < high; low++, high--) {
+			swap(ids, low, high);
+			swap(days, low, high);
+			swap(amounts, low, high);
+			swap(categoryIds, low, high);
+			swap(titles, low, high);
+			swap(descriptions, low, high);
+		}
+	}
+
+	/** Inserts the row, replacing any row with the same id. */
+	void upsert(long id, LocalDate date, Integer amount, String category, String title, String description) {
+		remove(id);
+		int row = firstAtOrAfter(toDay(date), id);
+		ensureCapacity(size + 1);
+		shift(row, row + 1, size - row);
+		size++;
+		set(row, id, date, amount, category, title, description);
+	}
+
+	/** Removes the row with this id; false if there was none. */
+	boolean remove(long id) {
+		// a linear scan over a long[]: writes are rare next to reads, and a position index would
+		// have to be rewritten on every insert
+		for (int row = 0; row < size; row++) {
+			if (ids[row] == id) {
+				stringBytes -= stringBytes(titles[row]) + stringBytes(descriptions[row]);
+				shift(row + 1, row, size - row - 1);
+				size--;
+				titles[size] = null;
+				descriptions[size] = null;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void set(int row, long id, LocalDate date, Integer amount, String category, String title, String description) {
+		ids[row] = id;
+		days[row] = date != null ? toDay(date) : NO_DATE;
+		amounts[row] = amount != null ? amount : NO_AMOUNT;
+		categoryIds[row] = categoryId(category);
+		titles[row] = title;
+		descriptions[row] = description;
+		stringBytes += stringBytes(title) + stringBytes(description);
+	}
+
+	private int categoryId(String category) {
+		if (category == null) {
+			return NO_CATEGORY;
+		}
+		return categoryIndex.computeIfAbsent(category, name -> {
+			categories.add(name);
+			return categories.size() - 1;
+		});
+	}
+
+	private int firstAtOrAfter(int day, long id) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (days[mid] < day || (days[mid] == day && ids[mid] < id)) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void shift(int from, int to, int length) {
+		System.arraycopy(ids, from, ids, to, length);
+		System.arraycopy(days, from, days, to, length);
+		System.arraycopy(amounts, from, amounts, to, length);
+		System.arraycopy(categoryIds, from, categoryIds, to, length);
+		System.arraycopy(titles, from, titles, to, length);
+		System.arraycopy(descriptions, from, descriptions, to, length);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= ids.length) {
+			return;
+		}
+		int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+		ids = Arrays.copyOf(ids, grown);
+		days = Arrays.copyOf(days, grown);
+		amounts = Arrays.copyOf(amounts, grown);
+		categoryIds = Arrays.copyOf(categoryIds, grown);
+		titles = Arrays.copyOf(titles, grown);
+		descriptions = Arrays.copyOf(descriptions, grown);
+	}
+
+	private static void swap(long[] values, int i, int j) {
+		long value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	}
+
+	private static void swap(int[] values, int i, int j) {
+		int value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	}
+
+	private static void swap(String[] values, int i, int j) {
+		String value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	}
+
+	// Dates outside the int range of epoch days (LocalDate.MIN/MAX) are clamped; real rows never get there
+	private static int toDay(LocalDate date) {
+		if (date == null) {
+			return NO_DATE;
+		}
+		long day = date.toEpochDay();
+		return (int) Math.max(NO_DATE + 1L, Math.min(Integer.MAX_VALUE, day));
+	}
+
+	private static long stringBytes(String value) {
+		return value != null ? STRING_BYTES + value.length() : 0;
+	}
+}
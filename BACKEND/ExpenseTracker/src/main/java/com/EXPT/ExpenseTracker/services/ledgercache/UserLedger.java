@@ -0,0 +1,47 @@
+package com.EXPT.ExpenseTracker.services.ledgercache;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+
+/**
+ * A cached user's expense and income columns. Readers see them under the read
+ * lock, write-through updates change them under the write lock.
+ */
+public final class UserLedger {
+
+	private final LedgerColumns expenses;
+	private final LedgerColumns incomes;
+
+	final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Set once the cache dropped this ledger; later writes no longer reach it
+	volatile boolean evicted;
+
+	// Bytes counted for this ledger in the cache total; only touched under the cache lock
+	long accountedBytes;
+
+	// System.nanoTime() when it was installed; only touched under the cache lock
+	long loadedAt;
+
+	UserLedger(LedgerColumns expenses, LedgerColumns incomes) {
+		this.expenses = expenses;
+		this.incomes = incomes;
+	}
+
+	public LedgerColumns expenses() {
+		return expenses;
+	}
+
+	public LedgerColumns incomes() {
+		return incomes;
+	}
+
+	public LedgerColumns columns(LedgerKind kind) {
+		return kind == LedgerKind.EXPENSE ? expenses : incomes;
+	}
+
+	long estimatedBytes() {
+		return expenses.estimatedBytes() + incomes.estimatedBytes();
+	}
+}
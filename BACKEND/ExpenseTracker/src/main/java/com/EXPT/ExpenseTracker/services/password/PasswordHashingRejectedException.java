@@ -0,0 +1,12 @@
+package com.EXPT.ExpenseTracker.services.password;
+
+/**
+ * The hashing pool is saturated; callers should answer 429 rather than queue
+ * more work behind it.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+	public PasswordHashingRejectedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,30 @@
+package com.EXPT.ExpenseTracker.services.password;
+
+/**
+ * Runs BCrypt on a dedicated, bounded pool instead of the request threads.
+ * Every method throws {@link PasswordHashingRejectedException} when the pool's
+ * queue is full or the hash doesn't finish in time.
+ */
+public interface PasswordHashingService {
+
+	String encode(CharSequence rawPassword);
+	
+	boolean matches(CharSequence rawPassword, String encodedPassword);
+	
+	/** True when the stored hash uses a lower cost than the configured one. */
+	boolean upgradeEncoding(String encodedPassword);
+	
+	int getQueueDepth();
+	
+	int getActiveCount();
+	
+	long getCompletedCount();
+	
+	long getRejectedCount();
+	
+	/** Mean time a hash spends executing, excluding the wait in the queue. */
+	double getMeanHashMillis();
+	
+	/** Mean time callers wait for a hash, including the wait in the queue. */
+	double getMeanWaitMillis();
+}
@@ -0,0 +1,182 @@
+package com.EXPT.ExpenseTracker.services.password;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+	private final PasswordEncoder passwordEncoder;
+	private final MeterRegistry meterRegistry;
+	
+	// 0 = one thread per core
+	@Value("${security.hashing.threads:0}")
+	private int threads;
+	
+	@Value("${security.hashing.queue-capacity:64}")
+	private int queueCapacity;
+	
+	@Value("${security.hashing.timeout:PT5S}")
+	private Duration timeout;
+	
+	private ThreadPoolExecutor executor;
+	
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder hashNanos = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAdder hashes = new LongAdder();
+	
+	private Timer encodeTimer;
+	private Timer matchesTimer;
+	private Timer waitTimer;
+	
+	@PostConstruct
+	void init() {
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadNumber = new AtomicInteger();
+		executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		
+		// execution time on the pool; the wait in the queue is in password.hash.wait
+		encodeTimer = Timer.builder("password.hash").tag("operation", "encode").register(meterRegistry);
+		matchesTimer = Timer.builder("password.hash").tag("operation", "matches").register(meterRegistry);
+		Gauge.builder("password.hash.queue.depth", this, PasswordHashingServiceImpl::getQueueDepth).register(meterRegistry);
+		Gauge.builder("password.hash.active", this, PasswordHashingServiceImpl::getActiveCount).register(meterRegistry);
+		waitTimer = Timer.builder("password.hash.wait").register(meterRegistry);
+		FunctionCounter.builder("password.hash.rejected", this, PasswordHashingServiceImpl::getRejectedCount).register(meterRegistry);
+	}
+	
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		// only parses the cost prefix, cheap enough for the caller's thread
+		return passwordEncoder.upgradeEncoding(encodedPassword);
+	}
+	
+	private <T> T run(Timer timer, Callable<T> hash) {
+		long submitted = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long start = System.nanoTime();
+				try {
+					return hash.call();
+				} finally {
+					long elapsed = System.nanoTime() - start;
+					hashNanos.add(elapsed);
+					timer.record(elapsed, TimeUnit.NANOSECONDS);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new PasswordHashingRejectedException("Password hashing queue is full");
+		}
+		
+		try {
+			return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			abandon(future);
+			rejected.increment();
+			throw new PasswordHashingRejectedException("Password hashing timed out");
+		} catch (InterruptedException e) {
+			abandon(future);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			hashes.increment();
+			long waited = System.nanoTime() - submitted;
+			waitNanos.add(waited);
+			waitTimer.record(waited, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	// The timeout only frees the caller. BCrypt never checks the interrupt flag, so a hash
+	// that already started runs to the end on its worker; what the pool can owe to callers
+	// that gave up is therefore bounded by the pool size plus the queue capacity. A task
+	// still waiting in the queue is taken out, so it neither runs nor holds a queue slot.
+	private void abandon(Future<?> future) {
+		future.cancel(false);
+		if (future instanceof Runnable queued) {
+			executor.remove(queued);
+		}
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	@Override
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	@Override
+	public long getCompletedCount() {
+		return executor.getCompletedTaskCount();
+	}
+
+	@Override
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	@Override
+	public double getMeanHashMillis() {
+		long completed = executor.getCompletedTaskCount();
+		return completed == 0 ? 0 : hashNanos.sum() / 1_000_000.0 / completed;
+	}
+
+	@Override
+	public double getMeanWaitMillis() {
+		long count = hashes.sum();
+		return count == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / count;
+	}
+}
@@ -0,0 +1,36 @@
+package com.EXPT.ExpenseTracker.services.rollup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Recomputes every user's rollups from the income and expense tables, e.g.
+ * after rows were changed outside the application. Disabled unless
+ * {@code rollup.rebuild-cron} or {@code rollup.rebuild-on-startup} is set.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupRebuildJob {
+
+	private final RollupService rollupService;
+	
+	@Value("${rollup.rebuild-on-startup:false}")
+	private boolean rebuildOnStartup;
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		if (rebuildOnStartup) {
+			rollupService.rebuildAll();
+		}
+	}
+	
+	@Scheduled(cron = "${rollup.rebuild-cron:-}")
+	public void rebuildScheduled() {
+		rollupService.rebuildAll();
+	}
+}
@@ -0,0 +1,35 @@
+package com.EXPT.ExpenseTracker.services.rollup;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.UserBalance;
+
+/**
+ * Maintains the per-user {@link UserBalance} and monthly rollups. The record*
+ * methods must be called inside the transaction that performs the write.
+ */
+public interface RollupService {
+
+	void recordAdded(LedgerKind kind, Long userId, Long id, LocalDate date, Integer amount);
+	
+	void recordChanged(LedgerKind kind, Long userId, Long id, LocalDate oldDate, Integer oldAmount,
+			LocalDate newDate, Integer newAmount);
+	
+	void recordRemoved(LedgerKind kind, Long userId, Long id, LocalDate date, Integer amount);
+	
+	/** For bulk inserts where the generated ids are not known. */
+	void recordAddedBatch(LedgerKind kind, Long userId, Collection<DatedAmount> rows);
+	
+	/** Returns the user's balance, rebuilding it from the raw tables if it does not exist yet. */
+	UserBalance getBalance(Long userId);
+	
+	UserBalance rebuild(Long userId);
+	
+	/** Rebuilds every user, one transaction per user. Returns the number of users processed. */
+	int rebuildAll();
+	
+	record DatedAmount(LocalDate date, Integer amount) {
+	}
+}
@@ -0,0 +1,220 @@
+package com.EXPT.ExpenseTracker.services.rollup;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.LedgerTotals;
+import com.EXPT.ExpenseTracker.entity.MonthlyTotal;
+import com.EXPT.ExpenseTracker.entity.UserBalance;
+import com.EXPT.ExpenseTracker.repository.AmountSummary;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.repository.MonthSummary;
+import com.EXPT.ExpenseTracker.repository.MonthlyTotalRepository;
+import com.EXPT.ExpenseTracker.repository.UserBalanceRepository;
+import com.EXPT.ExpenseTracker.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class RollupServiceImpl implements RollupService {
+
+	private final UserBalanceRepository balanceRepository;
+	private final MonthlyTotalRepository monthlyTotalRepository;
+	private final IncomeRepository incomeRepository;
+	private final ExpenseRepository expenseRepository;
+	private final UserRepository userRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final JdbcTemplate jdbcTemplate;
+
+	private volatile String insertIfAbsentSql;
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordAdded(LedgerKind kind, Long userId, Long id, LocalDate date, Integer amount) {
+		UserBalance balance = lockBalance(userId);
+		if (balance == null) {
+			return;
+		}
+		balance.totals(kind).add(id, date, amount);
+		adjustMonth(userId, kind, date, amount, 1);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordChanged(LedgerKind kind, Long userId, Long id, LocalDate oldDate, Integer oldAmount,
+			LocalDate newDate, Integer newAmount) {
+		UserBalance balance = lockBalance(userId);
+		if (balance == null) {
+			return;
+		}
+		LedgerTotals totals = balance.totals(kind);
+		boolean exact = totals.remove(id, oldDate, oldAmount);
+		totals.add(id, newDate, newAmount);
+		if (!exact) {
+			totals.reset(summarize(kind, userId));
+		}
+		adjustMonth(userId, kind, oldDate, oldAmount, -1);
+		adjustMonth(userId, kind, newDate, newAmount, 1);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordRemoved(LedgerKind kind, Long userId, Long id, LocalDate date, Integer amount) {
+		UserBalance balance = lockBalance(userId);
+		if (balance == null) {
+			return;
+		}
+		LedgerTotals totals = balance.totals(kind);
+		if (!totals.remove(id, date, amount)) {
+			totals.reset(summarize(kind, userId));
+		}
+		adjustMonth(userId, kind, date, amount, -1);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordAddedBatch(LedgerKind kind, Long userId, Collection<DatedAmount> rows) {
+		UserBalance balance = lockBalance(userId);
+		if (balance == null) {
+			return;
+		}
+		// ids of JDBC-inserted rows are unknown, so take min/max/latest from the database once per batch
+		balance.totals(kind).reset(summarize(kind, userId));
+		
+		Map<LocalDate, long[]> months = new HashMap<>();
+		for (DatedAmount row : rows) {
+			if (row.date() != null) {
+				long[] delta = months.computeIfAbsent(row.date().withDayOfMonth(1), month -> new long[2]);
+				delta[0] += row.amount() != null ? row.amount() : 0;
+				delta[1]++;
+			}
+		}
+		months.forEach((month, delta) -> {
+			MonthlyTotal monthlyTotal = monthlyTotalRepository.findById(new MonthlyTotal.Key(userId, kind, month))
+					.orElseGet(() -> new MonthlyTotal(userId, kind, month));
+			monthlyTotal.setTotal(monthlyTotal.getTotal() + delta[0]);
+			monthlyTotal.setCount(monthlyTotal.getCount() + delta[1]);
+			monthlyTotalRepository.save(monthlyTotal);
+		});
+	}
+
+	@Override
+	@Transactional
+	public UserBalance getBalance(Long userId) {
+		// A self-call skips the proxy, so rebuild runs in this method's transaction
+		return balanceRepository.findById(userId).orElseGet(() -> rebuild(userId));
+	}
+
+	@Override
+	@Transactional
+	public UserBalance rebuild(Long userId) {
+		insertIfAbsent(userId);
+		UserBalance balance = balanceRepository.findForUpdate(userId).orElseThrow();
+		for (LedgerKind kind : LedgerKind.values()) {
+			balance.totals(kind).reset(summarize(kind, userId));
+		}
+		balance = balanceRepository.save(balance);
+		
+		monthlyTotalRepository.deleteByUserId(userId);
+		for (LedgerKind kind : LedgerKind.values()) {
+			List<MonthSummary> months = kind == LedgerKind.INCOME
+					? incomeRepository.summarizeByMonth(userId)
+					: expenseRepository.summarizeByMonth(userId);
+			for (MonthSummary month : months) {
+				MonthlyTotal monthlyTotal = new MonthlyTotal(userId, kind, LocalDate.of(month.getYearValue(), month.getMonthValue(), 1));
+				monthlyTotal.setTotal(month.getTotal() != null ? month.getTotal() : 0);
+				monthlyTotal.setCount(month.getCount());
+				monthlyTotalRepository.save(monthlyTotal);
+			}
+		}
+		return balance;
+	}
+
+	@Override
+	public int rebuildAll() {
+		List<Long> userIds = userRepository.findAllIds();
+		for (Long userId : userIds) {
+			transactionTemplate.executeWithoutResult(status -> rebuild(userId));
+		}
+		return userIds.size();
+	}
+	
+	/**
+	 * Locks the user's balance row. If there is none yet it is built from the raw
+	 * tables, which already contain the current write, so null is returned and
+	 * the caller must not apply its delta on top.
+	 */
+	private UserBalance lockBalance(Long userId) {
+		UserBalance balance = balanceRepository.findForUpdate(userId).orElse(null);
+		if (balance == null) {
+			rebuild(userId);
+		}
+		return balance;
+	}
+	
+	/**
+	 * A pessimistic lock can't cover a row that doesn't exist yet, so the first
+	 * writers of a user race on this insert instead; the losers wait for the
+	 * winner's commit and insert nothing. Runs in the caller's transaction.
+	 */
+	private void insertIfAbsent(Long userId) {
+		if (insertIfAbsentSql == null) {
+			insertIfAbsentSql = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+				DatabaseMetaData metaData = connection.getMetaData();
+				return insertIfAbsentSql(metaData.getDatabaseProductName());
+			});
+		}
+		jdbcTemplate.update(insertIfAbsentSql, userId);
+	}
+	
+	// There is no portable "insert unless the key exists" that leaves the transaction usable;
+	// H2 only appears in the tests, where it runs in MySQL mode
+	static String insertIfAbsentSql(String productName) {
+		String product = productName.toLowerCase(Locale.ROOT);
+		String columns = "user_balance (user_id, income_total, income_count, expense_total, expense_count) VALUES (?, 0, 0, 0, 0)";
+		if (product.contains("postgresql")) {
+			return "INSERT INTO " + columns + " ON CONFLICT (user_id) DO NOTHING";
+		}
+		if (product.contains("mysql") || product.contains("mariadb") || product.contains("h2")) {
+			return "INSERT IGNORE INTO " + columns;
+		}
+		throw new IllegalStateException("No insert-if-absent statement for " + productName);
+	}
+	
+	private void adjustMonth(Long userId, LedgerKind kind, LocalDate date, Integer amount, int sign) {
+		if (date == null) {
+			return;
+		}
+		LocalDate month = date.withDayOfMonth(1);
+		MonthlyTotal monthlyTotal = monthlyTotalRepository.findById(new MonthlyTotal.Key(userId, kind, month))
+				.orElseGet(() -> new MonthlyTotal(userId, kind, month));
+		monthlyTotal.setTotal(monthlyTotal.getTotal() + sign * (amount != null ? amount : 0));
+		monthlyTotal.setCount(monthlyTotal.getCount() + sign);
+		if (monthlyTotal.getCount() <= 0) {
+			monthlyTotalRepository.delete(monthlyTotal);
+		} else {
+			monthlyTotalRepository.save(monthlyTotal);
+		}
+	}
+	
+	private AmountSummary summarize(LedgerKind kind, Long userId) {
+		return kind == LedgerKind.INCOME
+				? incomeRepository.summarizeByUserId(userId)
+				: expenseRepository.summarizeByUserId(userId);
+	}
+}
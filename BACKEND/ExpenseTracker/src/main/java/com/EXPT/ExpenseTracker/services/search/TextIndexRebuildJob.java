@@ -0,0 +1,37 @@
+package com.EXPT.ExpenseTracker.services.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rebuilds every user's text search postings from the income and expense
+ * tables, e.g. after rows were changed outside the application. Users are
+ * otherwise indexed on their first search. Disabled unless
+ * {@code search.rebuild-cron} or {@code search.rebuild-on-startup} is set.
+ */
+@Component
+@RequiredArgsConstructor
+public class TextIndexRebuildJob {
+
+	private final TextSearchService textSearchService;
+	
+	@Value("${search.rebuild-on-startup:false}")
+	private boolean rebuildOnStartup;
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		if (rebuildOnStartup) {
+			textSearchService.rebuildAll();
+		}
+	}
+	
+	@Scheduled(cron = "${search.rebuild-cron:-}")
+	public void rebuildScheduled() {
+		textSearchService.rebuildAll();
+	}
+}
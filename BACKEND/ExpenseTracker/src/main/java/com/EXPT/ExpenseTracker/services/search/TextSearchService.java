@@ -0,0 +1,38 @@
+package com.EXPT.ExpenseTracker.services.search;
+
+import java.util.List;
+
+import com.EXPT.ExpenseTracker.dto.LedgerEntryDTO;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+
+/**
+ * Per-user inverted index over the title, category and description of every
+ * ledger entry, and the ranked text search on top of it. The index* and
+ * remove* methods must be called inside the transaction that performs the write.
+ */
+public interface TextSearchService {
+
+	/** Replaces the entry's postings with the tokens of its current text. */
+	void indexEntry(LedgerKind kind, Long userId, Long id, String title, String category, String description);
+	
+	void removeEntry(LedgerKind kind, Long userId, Long id);
+	
+	/** Highest id in the kind's table, taken before a bulk insert whose generated ids are not known. */
+	long lastEntryId(LedgerKind kind);
+	
+	/** Indexes the user's entries with an id above {@code afterId}, i.e. the rows of a bulk insert. */
+	void indexEntriesAfter(LedgerKind kind, Long userId, long afterId);
+	
+	/**
+	 * Entries of the current user (of one kind, or both when {@code kind} is null)
+	 * containing every word of {@code query}, each word also matching as a prefix,
+	 * best matches first. The user's index is built on first use.
+	 */
+	List<LedgerEntryDTO> search(String query, LedgerKind kind, int limit);
+	
+	/** Rebuilds the user's postings from the ledger tables. */
+	void rebuild(Long userId);
+	
+	/** Rebuilds every user, one transaction per user. Returns the number of users processed. */
+	int rebuildAll();
+}
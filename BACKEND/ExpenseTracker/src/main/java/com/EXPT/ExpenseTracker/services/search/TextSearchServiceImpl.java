@@ -0,0 +1,274 @@
+package com.EXPT.ExpenseTracker.services.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.dto.LedgerEntryDTO;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.TextIndexState;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.repository.TextIndexStateRepository;
+import com.EXPT.ExpenseTracker.repository.UserRepository;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.util.TextTokenizer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The index is the {@code ledger_token} table: one row per (user, token, entry)
+ * with a weight for where the token occurs. A search is one statement that
+ * range-scans {@code (user_id, token)} once per query word and aggregates the
+ * postings, so its cost follows the number of matching postings, not the size
+ * of the user's ledger. Only the page of hits is then loaded, by id.
+ */
+@Service
+@RequiredArgsConstructor
+public class TextSearchServiceImpl implements TextSearchService {
+
+	private static final int MAX_RESULTS = 100;
+	private static final int MAX_TERMS = 8;
+	private static final int INSERT_BATCH_SIZE = 5000;
+
+	// how much a token counts towards the rank depending on the field it occurs in
+	private static final int TITLE_WEIGHT = 3;
+	private static final int CATEGORY_WEIGHT = 2;
+	private static final int DESCRIPTION_WEIGHT = 1;
+
+	private static final String INSERT_POSTING = "INSERT INTO ledger_token (user_id, token, kind, entry_id, weight) VALUES (?, ?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final TextIndexStateRepository stateRepository;
+	private final ExpenseRepository expenseRepository;
+	private final IncomeRepository incomeRepository;
+	private final UserRepository userRepository;
+	private final CustomUserDetailsService userDetailsService;
+
+	private volatile String insertPostingSql;
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void indexEntry(LedgerKind kind, Long userId, Long id, String title, String category, String description) {
+		removeEntry(kind, userId, id);
+		insertPostings(postings(kind, userId, id, title, category, description));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void removeEntry(LedgerKind kind, Long userId, Long id) {
+		jdbcTemplate.update("DELETE FROM ledger_token WHERE user_id = ? AND kind = ? AND entry_id = ?", userId, kind.name(), id);
+	}
+
+	@Override
+	public long lastEntryId(LedgerKind kind) {
+		Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + kind.getTableName(), Long.class);
+		return id != null ? id : 0;
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void indexEntriesAfter(LedgerKind kind, Long userId, long afterId) {
+		// a single write that committed in between may have indexed one of these rows already
+		jdbcTemplate.update("DELETE FROM ledger_token WHERE user_id = ? AND kind = ? AND entry_id > ?", userId, kind.name(), afterId);
+		indexRows(kind, userId, " AND id > ?", afterId);
+	}
+
+	@Override
+	public List<LedgerEntryDTO> search(String query, LedgerKind kind, int limit) {
+		if (limit < 1 || limit > MAX_RESULTS) {
+			throw new IllegalArgumentException("limit must be between 1 and " + MAX_RESULTS);
+		}
+		List<String> terms = TextTokenizer.tokenize(query);
+		if (terms.isEmpty()) {
+			throw new IllegalArgumentException("q must contain a word of at least " + TextTokenizer.MIN_TOKEN_LENGTH + " letters or digits");
+		}
+		if (terms.size() > MAX_TERMS) {
+			throw new IllegalArgumentException("q is limited to " + MAX_TERMS + " words");
+		}
+		Long userId = userDetailsService.getCurrentUserId();
+		ensureIndexed(userId);
+
+		// One branch per word: the entry's best posting in the word's prefix range, exact
+		// tokens counting double. Entries that matched every word are ranked by the sum.
+		StringBuilder branches = new StringBuilder();
+		List<Object> args = new ArrayList<>();
+		for (int i = 0; i < terms.size(); i++) {
+			String term = terms.get(i);
+			if (i > 0) {
+				branches.append(" UNION ALL ");
+			}
+			branches.append("SELECT kind, entry_id, MAX(CASE WHEN token = ? THEN weight * 2 ELSE weight END) AS score "
+					+ "FROM ledger_token WHERE user_id = ? AND token LIKE ? ESCAPE '!'");
+			args.add(term);
+			args.add(userId);
+			args.add(prefixPattern(term));
+			if (kind != null) {
+				branches.append(" AND kind = ?");
+				args.add(kind.name());
+			}
+			branches.append(" GROUP BY kind, entry_id");
+		}
+		String sql = "SELECT kind, entry_id, SUM(score) AS rank_score FROM (" + branches + ") m "
+				+ "GROUP BY kind, entry_id HAVING COUNT(*) = " + terms.size()
+				+ " ORDER BY rank_score DESC, entry_id DESC, kind LIMIT " + limit;
+		List<Hit> hits = jdbcTemplate.query(sql,
+				(rs, rowNum) -> new Hit(LedgerKind.valueOf(rs.getString("kind")), rs.getLong("entry_id")), args.toArray());
+
+		return load(userId, hits);
+	}
+
+	@Override
+	@Transactional
+	public void rebuild(Long userId) {
+		jdbcTemplate.update("DELETE FROM ledger_token WHERE user_id = ?", userId);
+		for (LedgerKind kind : LedgerKind.values()) {
+			indexRows(kind, userId, "");
+		}
+		TextIndexState state = stateRepository.findById(userId).orElseGet(TextIndexState::new);
+		state.setUserId(userId);
+		state.setIndexedAt(Instant.now());
+		stateRepository.save(state);
+	}
+
+	@Override
+	public int rebuildAll() {
+		List<Long> userIds = userRepository.findAllIds();
+		for (Long userId : userIds) {
+			transactionTemplate.executeWithoutResult(status -> rebuild(userId));
+		}
+		return userIds.size();
+	}
+
+	// Users who had entries before the index existed get theirs built on their first search
+	private void ensureIndexed(Long userId) {
+		if (stateRepository.existsById(userId)) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> rebuild(userId));
+		} catch (DataIntegrityViolationException e) {
+			// raced a concurrent rebuild or write; without a saved state the next search retries
+		}
+	}
+
+	private void indexRows(LedgerKind kind, Long userId, String condition, Object... extraArgs) {
+		Object[] args = new Object[extraArgs.length + 1];
+		args[0] = userId;
+		System.arraycopy(extraArgs, 0, args, 1, extraArgs.length);
+
+		List<Object[]> batch = new ArrayList<>();
+		jdbcTemplate.query("SELECT id, title, category, description FROM " + kind.getTableName() + " WHERE user_id = ?" + condition,
+				(RowCallbackHandler) rs -> {
+					batch.addAll(postings(kind, userId, rs.getLong("id"), rs.getString("title"), rs.getString("category"),
+							rs.getString("description")));
+					if (batch.size() >= INSERT_BATCH_SIZE) {
+						insertPostings(batch);
+						batch.clear();
+					}
+				}, args);
+		insertPostings(batch);
+	}
+
+	private void insertPostings(List<Object[]> postings) {
+		if (postings.isEmpty()) {
+			return;
+		}
+		if (insertPostingSql == null) {
+			insertPostingSql = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+					insertPostingSql(connection.getMetaData().getDatabaseProductName()));
+		}
+		jdbcTemplate.batchUpdate(insertPostingSql, postings);
+	}
+
+	// TextTokenizer folds what the collation equates as far as it knows; should two of an entry's
+	// tokens still land on one key, their weights are added up instead of failing the write
+	static String insertPostingSql(String productName) {
+		String product = productName.toLowerCase(Locale.ROOT);
+		if (product.contains("postgresql")) {
+			return INSERT_POSTING + " ON CONFLICT (user_id, token, kind, entry_id) DO UPDATE SET weight = ledger_token.weight + EXCLUDED.weight";
+		}
+		if (product.contains("mysql") || product.contains("mariadb") || product.contains("h2")) {
+			return INSERT_POSTING + " ON DUPLICATE KEY UPDATE weight = weight + VALUES(weight)";
+		}
+		return INSERT_POSTING;
+	}
+
+	private static List<Object[]> postings(LedgerKind kind, Long userId, long id, String title, String category, String description) {
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		addTokens(weights, title, TITLE_WEIGHT);
+		addTokens(weights, category, CATEGORY_WEIGHT);
+		addTokens(weights, description, DESCRIPTION_WEIGHT);
+		List<Object[]> rows = new ArrayList<>(weights.size());
+		weights.forEach((token, weight) -> rows.add(new Object[] { userId, token, kind.name(), id, weight }));
+		return rows;
+	}
+
+	private static void addTokens(Map<String, Integer> weights, String text, int weight) {
+		for (String token : TextTokenizer.tokenize(text)) {
+			weights.merge(token, weight, Integer::sum);
+		}
+	}
+
+	// LIKE 'prefix%' matches by the column's collation, so it agrees with the index order on every
+	// database; a hand-built upper bound doesn't (under utf8mb4_0900_ai_ci 'ama{' sorts before 'amaz').
+	// Both MySQL and H2 turn a constant prefix into an index range. Tokens are letters and digits
+	// only, the escaping just keeps that assumption out of the query.
+	private static String prefixPattern(String prefix) {
+		return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+	}
+
+	// Two id lookups at most, then back into rank order
+	private List<LedgerEntryDTO> load(Long userId, List<Hit> hits) {
+		List<Long> expenseIds = new ArrayList<>();
+		List<Long> incomeIds = new ArrayList<>();
+		for (Hit hit : hits) {
+			(hit.kind() == LedgerKind.EXPENSE ? expenseIds : incomeIds).add(hit.id());
+		}
+		Map<Long, ExpenseDTO> expenses = new HashMap<>();
+		if (!expenseIds.isEmpty()) {
+			expenseRepository.findDtoByUserIdAndIdIn(userId, expenseIds).forEach(expense -> expenses.put(expense.getId(), expense));
+		}
+		Map<Long, IncomeDTO> incomes = new HashMap<>();
+		if (!incomeIds.isEmpty()) {
+			incomeRepository.findDtoByUserIdAndIdIn(userId, incomeIds).forEach(income -> incomes.put(income.getId(), income));
+		}
+
+		List<LedgerEntryDTO> results = new ArrayList<>(hits.size());
+		for (Hit hit : hits) {
+			if (hit.kind() == LedgerKind.EXPENSE) {
+				ExpenseDTO expense = expenses.get(hit.id());
+				if (expense != null) {
+					results.add(new LedgerEntryDTO(LedgerKind.EXPENSE.getTableName(), expense.getId(), expense.getDate(),
+							expense.getTitle(), expense.getCategory(), expense.getAmount(), expense.getDescription()));
+				}
+			} else {
+				IncomeDTO income = incomes.get(hit.id());
+				if (income != null) {
+					results.add(new LedgerEntryDTO(LedgerKind.INCOME.getTableName(), income.getId(), income.getDate(),
+							income.getTitle(), income.getCategory(), income.getAmount(), income.getDescription()));
+				}
+			}
+		}
+		return results;
+	}
+
+	private record Hit(LedgerKind kind, long id) {
+	}
+}
@@ -0,0 +1,86 @@
+package com.EXPT.ExpenseTracker.services.signup;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import com.EXPT.ExpenseTracker.util.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory Bloom filters of taken usernames and emails. A miss means the value
+ * is definitely free, so signup can go straight to the insert; a hit only means
+ * "maybe taken" and has to be confirmed against the database. Values are
+ * lower-cased because MySQL's default collation compares case-insensitively.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SignupPrecheck {
+
+	private final JdbcTemplate jdbcTemplate;
+	
+	@Value("${signup.bloom.expected-insertions:1000000}")
+	private long expectedInsertions;
+	
+	@Value("${signup.bloom.false-positive-rate:0.01}")
+	private double falsePositiveRate;
+	
+	private volatile BloomFilter usernames;
+	private volatile BloomFilter emails;
+	
+	@PostConstruct
+	void init() {
+		usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+		emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+	}
+	
+	/**
+	 * Loads every existing username and email into fresh filters and swaps them in.
+	 * Signups racing with the rebuild may be missing from the new filters; that
+	 * only costs them the fast path, the unique constraints still reject duplicates.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		BloomFilter newUsernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+		BloomFilter newEmails = new BloomFilter(expectedInsertions, falsePositiveRate);
+		long[] count = new long[1];
+		jdbcTemplate.query("SELECT username, email FROM users", (RowCallbackHandler) rs -> {
+			newUsernames.put(normalize(rs.getString(1)));
+			newEmails.put(normalize(rs.getString(2)));
+			count[0]++;
+		});
+		usernames = newUsernames;
+		emails = newEmails;
+		log.info("Signup pre-check filters rebuilt with {} users", count[0]);
+	}
+	
+	public boolean usernameMayBeTaken(String username) {
+		return username != null && usernames.mightContain(normalize(username));
+	}
+	
+	public boolean emailMayBeTaken(String email) {
+		return email != null && emails.mightContain(normalize(email));
+	}
+	
+	public void recordTaken(String username, String email) {
+		if (username != null) {
+			usernames.put(normalize(username));
+		}
+		if (email != null) {
+			emails.put(normalize(email));
+		}
+	}
+	
+	private static String normalize(String value) {
+		return value == null ? "" : value.toLowerCase(Locale.ROOT);
+	}
+}
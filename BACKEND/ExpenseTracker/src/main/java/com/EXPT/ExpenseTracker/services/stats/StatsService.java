@@ -1,5 +1,9 @@
 package com.EXPT.ExpenseTracker.services.stats;
 
+import java.time.LocalDate;
+
+import com.EXPT.ExpenseTracker.dto.CategoryBreakdownDTO;
+import com.EXPT.ExpenseTracker.dto.ChartSeriesDTO;
 import com.EXPT.ExpenseTracker.dto.GraphDTO;
 import com.EXPT.ExpenseTracker.dto.StatsDTO;
 
@@ -7,5 +11,9 @@ public interface StatsService {
 
 	GraphDTO getChartData();
 	
+	ChartSeriesDTO getChartSeries(String granularity, LocalDate from, LocalDate to);
+	
 	StatsDTO getStats();
+	
+	CategoryBreakdownDTO getCategoryBreakdown(String kind, LocalDate from, LocalDate to, int top);
 }
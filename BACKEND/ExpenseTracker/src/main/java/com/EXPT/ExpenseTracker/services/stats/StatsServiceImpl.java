@@ -1,23 +1,41 @@
 package com.EXPT.ExpenseTracker.services.stats;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.function.IntFunction;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.EXPT.ExpenseTracker.dto.CategoryBreakdownDTO;
+import com.EXPT.ExpenseTracker.dto.CategoryShareDTO;
+import com.EXPT.ExpenseTracker.dto.ChartSeriesDTO;
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
 import com.EXPT.ExpenseTracker.dto.GraphDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
 import com.EXPT.ExpenseTracker.dto.StatsDTO;
 import com.EXPT.ExpenseTracker.entity.Expense;
 import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.entity.LedgerTotals;
 import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.entity.UserBalance;
+import com.EXPT.ExpenseTracker.repository.AmountSummary;
+import com.EXPT.ExpenseTracker.repository.CategoryTotal;
+import com.EXPT.ExpenseTracker.repository.DailyTotal;
 import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
 import com.EXPT.ExpenseTracker.repository.IncomeRepository;
 import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerCacheService;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerColumns;
+import com.EXPT.ExpenseTracker.services.ledgercache.UserLedger;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,16 +43,27 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class StatsServiceImpl implements StatsService {
 
+	private static final int MAX_CHART_BUCKETS = 1000;
+	private static final int MAX_TOP_CATEGORIES = 50;
+	private static final String OTHER_CATEGORY = "Other";
+	private static final String UNCATEGORIZED = "Uncategorized";
+
 	private final IncomeRepository incomeRepository;
 	private final ExpenseRepository expenseRepository;
+	private final RollupService rollupService;
+	private final LedgerCacheService ledgerCacheService;
 	
 	@Autowired
 	private CustomUserDetailsService userDetailsService;
 	
+	// "rollup" (default) reads the maintained user_balance row, "aggregate" runs the
+	// stats in the database, "scan" keeps the old in-memory path
+	@Value("${stats.mode:rollup}")
+	private String statsMode;
+	
 	private User getCurrentUser() {
-		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-		String username = authentication.getName();
-		return userDetailsService.getUserByUsername(username);
+		// Resolved from the cached principal; no users-table query per request
+		return userDetailsService.getCurrentUserReference();
 	}
 	
 	public GraphDTO getChartData() {
@@ -43,20 +72,21 @@ public class StatsServiceImpl implements StatsService {
 		LocalDate endDate = LocalDate.now();
 		LocalDate startDate = endDate.minusMonths(10);
 		
-		GraphDTO graphDTO = new GraphDTO();
+		Optional<GraphDTO> cached = ledgerCacheService.read(currentUser.getId(), ledger -> {
+			GraphDTO graphDTO = new GraphDTO();
+			graphDTO.setExpenseList(between(ledger.expenses(), startDate, endDate, ledger.expenses()::toExpenseDto));
+			graphDTO.setIncomeList(between(ledger.incomes(), startDate, endDate, ledger.incomes()::toIncomeDto));
+			return graphDTO;
+		});
+		if (cached.isPresent()) {
+			return cached.get();
+		}
 		
-		// Get user's data
-		List<Expense> expenses = expenseRepository.findByUserId(currentUser.getId());
-		List<Income> incomes = incomeRepository.findByUserId(currentUser.getId());
-		
-		// Filter by date range
-		List<Expense> filteredExpenses = expenses.stream()
-			.filter(e -> !e.getDate().isBefore(startDate) && !e.getDate().isAfter(endDate))
-			.toList();
+		GraphDTO graphDTO = new GraphDTO();
 		
-		List<Income> filteredIncomes = incomes.stream()
-			.filter(i -> !i.getDate().isBefore(startDate) && !i.getDate().isAfter(endDate))
-			.toList();
+		// Get user's data for the window only, projected straight into DTOs
+		List<ExpenseDTO> filteredExpenses = expenseRepository.findDtoByUserIdAndDateBetween(currentUser.getId(), startDate, endDate);
+		List<IncomeDTO> filteredIncomes = incomeRepository.findDtoByUserIdAndDateBetween(currentUser.getId(), startDate, endDate);
 		
 		graphDTO.setExpenseList(filteredExpenses);
 		graphDTO.setIncomeList(filteredIncomes);
@@ -64,17 +94,290 @@ public class StatsServiceImpl implements StatsService {
 		return graphDTO;
 	}
 	
+	private static <T> List<T> between(LedgerColumns columns, LocalDate startDate, LocalDate endDate, IntFunction<T> mapper) {
+		int end = columns.firstAfter(endDate);
+		List<T> rows = new ArrayList<>();
+		for (int row = columns.firstOnOrAfter(startDate); row < end; row++) {
+			rows.add(mapper.apply(row));
+		}
+		return rows;
+	}
+	
+	public ChartSeriesDTO getChartSeries(String granularity, LocalDate from, LocalDate to) {
+		boolean monthly;
+		if ("month".equalsIgnoreCase(granularity)) {
+			monthly = true;
+		} else if ("day".equalsIgnoreCase(granularity)) {
+			monthly = false;
+		} else {
+			throw new IllegalArgumentException("Unsupported granularity: " + granularity);
+		}
+		
+		LocalDate endDate = to != null ? to : LocalDate.now();
+		LocalDate startDate = from != null ? from : endDate.minusMonths(10);
+		if (monthly) {
+			startDate = startDate.withDayOfMonth(1);
+		}
+		if (startDate.isAfter(endDate)) {
+			throw new IllegalArgumentException("'from' must not be after 'to'");
+		}
+		
+		long bucketCount = bucketIndex(startDate, endDate, monthly) + 1;
+		if (bucketCount > MAX_CHART_BUCKETS) {
+			throw new IllegalArgumentException("Range too large, at most " + MAX_CHART_BUCKETS + " buckets are allowed");
+		}
+		
+		User currentUser = getCurrentUser();
+		int size = (int) bucketCount;
+		
+		String[] labels = new String[size];
+		LocalDate cursor = startDate;
+		for (int i = 0; i < size; i++) {
+			labels[i] = monthly ? YearMonth.from(cursor).toString() : cursor.toString();
+			cursor = monthly ? cursor.plusMonths(1) : cursor.plusDays(1);
+		}
+		
+		ChartSeriesDTO series = new ChartSeriesDTO();
+		series.setGranularity(monthly ? "month" : "day");
+		series.setFrom(startDate);
+		series.setTo(endDate);
+		series.setLabels(labels);
+		LocalDate windowStart = startDate;
+		boolean cached = ledgerCacheService.read(currentUser.getId(), ledger -> {
+			series.setIncome(toBuckets(ledger.incomes(), windowStart, endDate, monthly, size));
+			series.setExpense(toBuckets(ledger.expenses(), windowStart, endDate, monthly, size));
+			return series;
+		}).isPresent();
+		if (!cached) {
+			series.setIncome(toBuckets(incomeRepository.sumByDay(currentUser.getId(), startDate, endDate), startDate, monthly, size));
+			series.setExpense(toBuckets(expenseRepository.sumByDay(currentUser.getId(), startDate, endDate), startDate, monthly, size));
+		}
+		return series;
+	}
+	
+	private static long[] toBuckets(LedgerColumns columns, LocalDate startDate, LocalDate endDate, boolean monthly, int size) {
+		long[] buckets = new long[size];
+		int end = columns.firstAfter(endDate);
+		for (int row = columns.firstOnOrAfter(startDate); row < end; row++) {
+			if (columns.hasAmount(row)) {
+				int bucket = monthly
+						? (int) bucketIndex(startDate, columns.date(row), true)
+						: (int) (columns.epochDay(row) - startDate.toEpochDay());
+				buckets[bucket] += columns.amountValue(row);
+			}
+		}
+		return buckets;
+	}
+	
+	private static long[] toBuckets(List<DailyTotal> dailyTotals, LocalDate startDate, boolean monthly, int size) {
+		long[] buckets = new long[size];
+		for (DailyTotal dailyTotal : dailyTotals) {
+			if (dailyTotal.getTotal() != null) {
+				buckets[(int) bucketIndex(startDate, dailyTotal.getDay(), monthly)] += dailyTotal.getTotal();
+			}
+		}
+		return buckets;
+	}
+	
+	private static long bucketIndex(LocalDate startDate, LocalDate date, boolean monthly) {
+		return monthly
+				? ChronoUnit.MONTHS.between(YearMonth.from(startDate), YearMonth.from(date))
+				: ChronoUnit.DAYS.between(startDate, date);
+	}
+	
+	public CategoryBreakdownDTO getCategoryBreakdown(String kind, LocalDate from, LocalDate to, int top) {
+		boolean income;
+		if ("expense".equalsIgnoreCase(kind)) {
+			income = false;
+		} else if ("income".equalsIgnoreCase(kind)) {
+			income = true;
+		} else {
+			throw new IllegalArgumentException("Unsupported kind: " + kind);
+		}
+		if (top < 1 || top > MAX_TOP_CATEGORIES) {
+			throw new IllegalArgumentException("top must be between 1 and " + MAX_TOP_CATEGORIES);
+		}
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new IllegalArgumentException("'from' must not be after 'to'");
+		}
+		
+		// One grouped query, largest first; everything below is over at most one row per category
+		User currentUser = getCurrentUser();
+		List<CategoryTotal> rows = income
+				? incomeRepository.sumByCategory(currentUser.getId(), from, to)
+				: expenseRepository.sumByCategory(currentUser.getId(), from, to);
+		
+		long total = 0;
+		long count = 0;
+		for (CategoryTotal row : rows) {
+			total += row.getTotal() != null ? row.getTotal() : 0;
+			count += row.getCount();
+		}
+		
+		List<CategoryShareDTO> categories = new ArrayList<>(Math.min(rows.size(), top + 1));
+		long otherTotal = 0;
+		long otherCount = 0;
+		for (int i = 0; i < rows.size(); i++) {
+			CategoryTotal row = rows.get(i);
+			long rowTotal = row.getTotal() != null ? row.getTotal() : 0;
+			// Only fold when there is more than one category left to fold
+			if (i < top || rows.size() == top + 1) {
+				boolean uncategorized = row.getCategory() == null;
+				categories.add(categoryShare(uncategorized ? UNCATEGORIZED : row.getCategory(), rowTotal, row.getCount(), total,
+						false, uncategorized));
+			} else {
+				otherTotal += rowTotal;
+				otherCount += row.getCount();
+			}
+		}
+		if (otherCount > 0) {
+			categories.add(categoryShare(OTHER_CATEGORY, otherTotal, otherCount, total, true, false));
+		}
+		
+		CategoryBreakdownDTO breakdown = new CategoryBreakdownDTO();
+		breakdown.setKind(income ? "income" : "expense");
+		breakdown.setFrom(from);
+		breakdown.setTo(to);
+		breakdown.setTotal(total);
+		breakdown.setCount(count);
+		breakdown.setCategories(categories);
+		return breakdown;
+	}
+	
+	private static CategoryShareDTO categoryShare(String category, long total, long count, long grandTotal,
+			boolean other, boolean uncategorized) {
+		return new CategoryShareDTO(category, total, count,
+				count > 0 ? (double) total / count : 0.0,
+				grandTotal != 0 ? (double) total / grandTotal : 0.0,
+				other, uncategorized);
+	}
+	
 	public StatsDTO getStats() {
 		User currentUser = getCurrentUser();
-//		System.out.println("Getting stats for user: " + currentUser.getUsername());
 		
+		Optional<StatsDTO> cached = ledgerCacheService.read(currentUser.getId(), StatsServiceImpl::getStatsFromLedger);
+		if (cached.isPresent()) {
+			return cached.get();
+		}
+		if ("scan".equalsIgnoreCase(statsMode)) {
+			return getStatsByScan(currentUser);
+		}
+		if ("aggregate".equalsIgnoreCase(statsMode)) {
+			return getStatsByAggregate(currentUser);
+		}
+		return getStatsByRollup(currentUser);
+	}
+	
+	/**
+	 * Same figures as the other modes, from the user's cached columns: one pass
+	 * over the amounts per kind, and the latest entry is the last row.
+	 */
+	private static StatsDTO getStatsFromLedger(UserLedger ledger) {
+		LedgerColumns incomes = ledger.incomes();
+		LedgerColumns expenses = ledger.expenses();
+		
+		double totalIncome = incomes.sum(0, incomes.size());
+		double totalExpense = expenses.sum(0, expenses.size());
+		
+		StatsDTO statsDTO = new StatsDTO();
+		statsDTO.setIncome(totalIncome);
+		statsDTO.setExpense(totalExpense);
+		statsDTO.setBalance(totalIncome - totalExpense);
+		
+		// Undated rows sort first, so a dated latest row is always the last one
+		int lastIncome = incomes.size() - 1;
+		if (lastIncome >= 0 && incomes.date(lastIncome) != null) {
+			statsDTO.setLatestIncome(incomes.toIncomeDto(lastIncome));
+		}
+		int lastExpense = expenses.size() - 1;
+		if (lastExpense >= 0 && expenses.date(lastExpense) != null) {
+			statsDTO.setLatestExpense(expenses.toExpenseDto(lastExpense));
+		}
+		
+		Integer minIncome = incomes.min();
+		Integer maxIncome = incomes.max();
+		Integer minExpense = expenses.min();
+		Integer maxExpense = expenses.max();
+		statsDTO.setMinIncome(minIncome != null ? minIncome : 0.0);
+		statsDTO.setMaxIncome(maxIncome != null ? maxIncome : 0.0);
+		statsDTO.setMinExpense(minExpense != null ? minExpense : 0.0);
+		statsDTO.setMaxExpense(maxExpense != null ? maxExpense : 0.0);
+		
+		return statsDTO;
+	}
+	
+	/**
+	 * Reads the totals from the user's {@link UserBalance} row (a primary-key
+	 * lookup) plus the two latest rows by id, independent of history length.
+	 */
+	private StatsDTO getStatsByRollup(User currentUser) {
+		UserBalance balance = rollupService.getBalance(currentUser.getId());
+		LedgerTotals income = balance.getIncome();
+		LedgerTotals expense = balance.getExpense();
+		
+		double totalIncome = income.getTotal();
+		double totalExpense = expense.getTotal();
+		
+		StatsDTO statsDTO = new StatsDTO();
+		statsDTO.setIncome(totalIncome);
+		statsDTO.setExpense(totalExpense);
+		statsDTO.setBalance(totalIncome - totalExpense);
+		
+		if (income.getLatestId() != null) {
+			incomeRepository.findDtoById(income.getLatestId()).ifPresent(statsDTO::setLatestIncome);
+		}
+		if (expense.getLatestId() != null) {
+			expenseRepository.findDtoById(expense.getLatestId()).ifPresent(statsDTO::setLatestExpense);
+		}
+		
+		statsDTO.setMinIncome(income.getMinAmount() != null ? income.getMinAmount() : 0.0);
+		statsDTO.setMaxIncome(income.getMaxAmount() != null ? income.getMaxAmount() : 0.0);
+		statsDTO.setMinExpense(expense.getMinAmount() != null ? expense.getMinAmount() : 0.0);
+		statsDTO.setMaxExpense(expense.getMaxAmount() != null ? expense.getMaxAmount() : 0.0);
+		
+		return statsDTO;
+	}
+	
+	/**
+	 * Computes the dashboard stats with one aggregate query per table; the only
+	 * rows read back are the latest income and expense, as DTO projections.
+	 */
+	private StatsDTO getStatsByAggregate(User currentUser) {
+		AmountSummary incomeSummary = incomeRepository.summarizeByUserId(currentUser.getId());
+		AmountSummary expenseSummary = expenseRepository.summarizeByUserId(currentUser.getId());
+		
+		double totalIncome = incomeSummary.getTotal() != null ? incomeSummary.getTotal() : 0.0;
+		double totalExpense = expenseSummary.getTotal() != null ? expenseSummary.getTotal() : 0.0;
+		
+		StatsDTO statsDTO = new StatsDTO();
+		statsDTO.setIncome(totalIncome);
+		statsDTO.setExpense(totalExpense);
+		statsDTO.setBalance(totalIncome - totalExpense);
+		
+		if (incomeSummary.getLatestId() != null) {
+			incomeRepository.findDtoById(incomeSummary.getLatestId()).ifPresent(statsDTO::setLatestIncome);
+		}
+		if (expenseSummary.getLatestId() != null) {
+			expenseRepository.findDtoById(expenseSummary.getLatestId()).ifPresent(statsDTO::setLatestExpense);
+		}
+		
+		statsDTO.setMinIncome(incomeSummary.getMinAmount() != null ? incomeSummary.getMinAmount() : 0.0);
+		statsDTO.setMaxIncome(incomeSummary.getMaxAmount() != null ? incomeSummary.getMaxAmount() : 0.0);
+		statsDTO.setMinExpense(expenseSummary.getMinAmount() != null ? expenseSummary.getMinAmount() : 0.0);
+		statsDTO.setMaxExpense(expenseSummary.getMaxAmount() != null ? expenseSummary.getMaxAmount() : 0.0);
+		
+		return statsDTO;
+	}
+	
+	/**
+	 * Original implementation: loads every row for the user and aggregates in
+	 * memory. Kept behind {@code stats.mode=scan} for comparison.
+	 */
+	private StatsDTO getStatsByScan(User currentUser) {
 		// Get all user's data
 		List<Income> incomeList = incomeRepository.findByUserId(currentUser.getId());
 		List<Expense> expenseList = expenseRepository.findByUserId(currentUser.getId());
 		
-//		System.out.println("Found " + incomeList.size() + " incomes");
-//		System.out.println("Found " + expenseList.size() + " expenses");
-		
 		// Calculate totals - DEFAULT TO 0.0 if empty
 		double totalIncome = incomeList.stream()
 			.mapToDouble(Income::getAmount)
@@ -84,23 +387,20 @@ public class StatsServiceImpl implements StatsService {
 			.mapToDouble(Expense::getAmount)
 			.sum(); // This returns 0.0 if list is empty
 		
-//		System.out.println("Total Income: " + totalIncome);
-//		System.out.println("Total Expense: " + totalExpense);
-		
 		// Get latest income and expense for this user
 		Optional<Income> optionalIncome = incomeList.stream()
-			.max((i1, i2) -> i1.getDate().compareTo(i2.getDate()));
+			.max(Comparator.comparing(Income::getDate).thenComparing(Income::getId));
 		
 		Optional<Expense> optionalExpense = expenseList.stream()
-			.max((e1, e2) -> e1.getDate().compareTo(e2.getDate()));
+			.max(Comparator.comparing(Expense::getDate).thenComparing(Expense::getId));
 		
 		StatsDTO statsDTO = new StatsDTO();
 		statsDTO.setIncome(totalIncome);
 		statsDTO.setExpense(totalExpense);
 		statsDTO.setBalance(totalIncome - totalExpense);
 
-		optionalIncome.ifPresent(statsDTO::setLatestIncome);
-		optionalExpense.ifPresent(statsDTO::setLatestExpense);
+		optionalIncome.map(Income::getIncomeDto).ifPresent(statsDTO::setLatestIncome);
+		optionalExpense.map(Expense::getExpenseDto).ifPresent(statsDTO::setLatestExpense);
 		
 		// Calculate min/max - DEFAULT TO 0.0 if empty
 		OptionalDouble minIncome = incomeList.stream().mapToDouble(Income::getAmount).min();
@@ -114,8 +414,6 @@ public class StatsServiceImpl implements StatsService {
 		statsDTO.setMinExpense(minExpense.orElse(0.0));
 		statsDTO.setMaxExpense(maxExpense.orElse(0.0));
 		
-//		System.out.println("Returning stats DTO: " + statsDTO);
-		
 		return statsDTO;
 	}
-}
\ No newline at end of file
+}
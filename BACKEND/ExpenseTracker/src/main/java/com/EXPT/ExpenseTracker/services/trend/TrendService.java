@@ -0,0 +1,15 @@
+package com.EXPT.ExpenseTracker.services.trend;
+
+import java.time.YearMonth;
+
+import com.EXPT.ExpenseTracker.dto.TrendDTO;
+
+/**
+ * Month-by-month income/expense series with rolling averages, month-over-month
+ * change and savings rate, computed from the monthly rollups.
+ */
+public interface TrendService {
+
+	/** Null bounds default to the 12 months ending with the current one. */
+	TrendDTO getTrend(YearMonth from, YearMonth to);
+}
@@ -0,0 +1,223 @@
+package com.EXPT.ExpenseTracker.services.trend;
+
+import java.sql.DatabaseMetaData;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.EXPT.ExpenseTracker.dto.TrendDTO;
+import com.EXPT.ExpenseTracker.dto.TrendPointDTO;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.MonthlyTotal;
+import com.EXPT.ExpenseTracker.repository.MonthlyTotalRepository;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendServiceImpl implements TrendService {
+
+	private static final int MAX_MONTHS = 120;
+
+	// The 12-month average of the first point needs the 11 months before it
+	private static final int WARM_UP_MONTHS = 11;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final MonthlyTotalRepository monthlyTotalRepository;
+	private final RollupService rollupService;
+	private final CustomUserDetailsService userDetailsService;
+
+	// "window" runs one SQL statement with window functions over the monthly rollups,
+	// "stream" makes a single pass over the same rows in Java, "auto" (default) uses
+	// window when the database supports it and falls back to stream otherwise
+	@Value("${stats.trend-mode:auto}")
+	private String trendMode;
+
+	private volatile Boolean windowSupported;
+
+	@Override
+	public TrendDTO getTrend(YearMonth from, YearMonth to) {
+		YearMonth end = to != null ? to : YearMonth.now();
+		YearMonth start = from != null ? from : end.minusMonths(11);
+		if (start.isAfter(end)) {
+			throw new IllegalArgumentException("'from' must not be after 'to'");
+		}
+		if (ChronoUnit.MONTHS.between(start, end) + 1 > MAX_MONTHS) {
+			throw new IllegalArgumentException("Range too large, at most " + MAX_MONTHS + " months are allowed");
+		}
+
+		Long userId = userDetailsService.getCurrentUserId();
+		// Builds the rollups for users that never had them; a primary-key lookup otherwise
+		rollupService.getBalance(userId);
+
+		TrendDTO trend = new TrendDTO();
+		trend.setFrom(start.toString());
+		trend.setTo(end.toString());
+		trend.setPoints(computePoints(userId, start, end));
+		return trend;
+	}
+
+	private List<TrendPointDTO> computePoints(Long userId, YearMonth start, YearMonth end) {
+		if ("stream".equalsIgnoreCase(trendMode)) {
+			return byStreaming(userId, start, end);
+		}
+		if ("window".equalsIgnoreCase(trendMode)) {
+			return byWindow(userId, start, end);
+		}
+		if (windowSupported == null) {
+			windowSupported = detectWindowSupport();
+		}
+		if (windowSupported) {
+			try {
+				return byWindow(userId, start, end);
+			} catch (BadSqlGrammarException e) {
+				log.warn("Window-function trend query rejected, using the streaming fallback from now on: {}",
+						e.getMostSpecificCause().getMessage());
+				windowSupported = false;
+			}
+		}
+		return byStreaming(userId, start, end);
+	}
+
+	private boolean detectWindowSupport() {
+		return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			DatabaseMetaData metaData = connection.getMetaData();
+			return supportsWindowFunctions(metaData.getDatabaseProductName(),
+					metaData.getDatabaseMajorVersion(), metaData.getDatabaseMinorVersion());
+		}));
+	}
+
+	// Recursive CTEs plus ROWS frames and LAG: PostgreSQL 8.4+, MySQL 8, MariaDB 10.2, H2 2
+	static boolean supportsWindowFunctions(String productName, int major, int minor) {
+		String product = productName.toLowerCase(Locale.ROOT);
+		if (product.contains("postgresql")) {
+			return major > 8 || (major == 8 && minor >= 4);
+		}
+		if (product.contains("mariadb")) {
+			return major > 10 || (major == 10 && minor >= 2);
+		}
+		if (product.contains("mysql")) {
+			return major >= 8;
+		}
+		if (product.contains("h2")) {
+			return major >= 2;
+		}
+		return false;
+	}
+
+	/**
+	 * One statement: a recursive calendar of month indexes (so empty months take
+	 * part in the frames as zero), left-joined to the user's monthly rollups,
+	 * then rolling sums and the previous month via window functions. Only month
+	 * indexes are inlined into the SQL; everything else is bound. Every CTE names
+	 * its columns since H2 insists on that once the WITH is RECURSIVE.
+	 */
+	private List<TrendPointDTO> byWindow(Long userId, YearMonth start, YearMonth end) {
+		YearMonth first = start.minusMonths(WARM_UP_MONTHS);
+		String sql = "WITH RECURSIVE calendar (idx) AS ("
+				+ "SELECT " + index(first) + " UNION ALL SELECT idx + 1 FROM calendar WHERE idx < " + index(end) + "), "
+				+ "ledger_month (idx, kind, total) AS (SELECT EXTRACT(YEAR FROM month_start) * 12 + EXTRACT(MONTH FROM month_start) - 1 AS idx, kind, total "
+				+ "FROM user_monthly_total WHERE user_id = ? AND month_start BETWEEN ? AND ?), "
+				+ "monthly (idx, income, expense) AS (SELECT c.idx, "
+				+ "COALESCE(SUM(CASE WHEN l.kind = ? THEN l.total END), 0) AS income, "
+				+ "COALESCE(SUM(CASE WHEN l.kind = ? THEN l.total END), 0) AS expense "
+				+ "FROM calendar c LEFT JOIN ledger_month l ON l.idx = c.idx GROUP BY c.idx) "
+				+ "SELECT * FROM (SELECT idx, income, expense, "
+				+ "SUM(income) OVER (ORDER BY idx ROWS BETWEEN 2 PRECEDING AND CURRENT ROW) AS income_sum3, "
+				+ "SUM(income) OVER (ORDER BY idx ROWS BETWEEN 11 PRECEDING AND CURRENT ROW) AS income_sum12, "
+				+ "SUM(expense) OVER (ORDER BY idx ROWS BETWEEN 2 PRECEDING AND CURRENT ROW) AS expense_sum3, "
+				+ "SUM(expense) OVER (ORDER BY idx ROWS BETWEEN 11 PRECEDING AND CURRENT ROW) AS expense_sum12, "
+				+ "LAG(income) OVER (ORDER BY idx) AS prev_income, "
+				+ "LAG(expense) OVER (ORDER BY idx) AS prev_expense "
+				+ "FROM monthly) w WHERE idx >= ? ORDER BY idx";
+		return jdbcTemplate.query(sql, (rs, rowNum) -> point(fromIndex(rs.getInt("idx")),
+						rs.getLong("income"), rs.getLong("expense"),
+						rs.getLong("income_sum3"), rs.getLong("income_sum12"),
+						rs.getLong("expense_sum3"), rs.getLong("expense_sum12"),
+						rs.getLong("prev_income"), rs.getLong("prev_expense")),
+				userId, first.atDay(1), end.atDay(1), LedgerKind.INCOME.name(), LedgerKind.EXPENSE.name(), index(start));
+	}
+
+	/**
+	 * Single pass over the user's monthly rollup rows into per-month arrays, then
+	 * one pass over the calendar keeping running 3- and 12-month sums.
+	 */
+	private List<TrendPointDTO> byStreaming(Long userId, YearMonth start, YearMonth end) {
+		YearMonth first = start.minusMonths(WARM_UP_MONTHS);
+		int firstIndex = index(first);
+		int size = index(end) - firstIndex + 1;
+		long[] income = new long[size];
+		long[] expense = new long[size];
+		for (MonthlyTotal row : monthlyTotalRepository.findByUserIdAndMonthBetweenOrderByMonth(userId, first.atDay(1), end.atDay(1))) {
+			int i = index(YearMonth.from(row.getMonth())) - firstIndex;
+			if (row.getKind() == LedgerKind.INCOME) {
+				income[i] += row.getTotal();
+			} else {
+				expense[i] += row.getTotal();
+			}
+		}
+
+		List<TrendPointDTO> points = new ArrayList<>(size - WARM_UP_MONTHS);
+		long incomeSum3 = 0, incomeSum12 = 0, expenseSum3 = 0, expenseSum12 = 0;
+		for (int i = 0; i < size; i++) {
+			incomeSum3 += income[i];
+			incomeSum12 += income[i];
+			expenseSum3 += expense[i];
+			expenseSum12 += expense[i];
+			if (i >= 3) {
+				incomeSum3 -= income[i - 3];
+				expenseSum3 -= expense[i - 3];
+			}
+			if (i >= 12) {
+				incomeSum12 -= income[i - 12];
+				expenseSum12 -= expense[i - 12];
+			}
+			if (i >= WARM_UP_MONTHS) {
+				points.add(point(first.plusMonths(i), income[i], expense[i], incomeSum3, incomeSum12, expenseSum3, expenseSum12,
+						income[i - 1], expense[i - 1]));
+			}
+		}
+		return points;
+	}
+
+	private static TrendPointDTO point(YearMonth month, long income, long expense, long incomeSum3, long incomeSum12,
+			long expenseSum3, long expenseSum12, long previousIncome, long previousExpense) {
+		TrendPointDTO point = new TrendPointDTO();
+		point.setMonth(month.toString());
+		point.setIncome(income);
+		point.setExpense(expense);
+		point.setNet(income - expense);
+		point.setIncomeAvg3(incomeSum3 / 3.0);
+		point.setIncomeAvg12(incomeSum12 / 12.0);
+		point.setExpenseAvg3(expenseSum3 / 3.0);
+		point.setExpenseAvg12(expenseSum12 / 12.0);
+		point.setIncomeChange(change(previousIncome, income));
+		point.setExpenseChange(change(previousExpense, expense));
+		point.setSavingsRate(income > 0 ? (income - expense) / (double) income : null);
+		return point;
+	}
+
+	private static Double change(long previous, long current) {
+		return previous != 0 ? (current - previous) / (double) previous : null;
+	}
+
+	private static int index(YearMonth month) {
+		return month.getYear() * 12 + month.getMonthValue() - 1;
+	}
+
+	private static YearMonth fromIndex(int index) {
+		return YearMonth.of(index / 12, index % 12 + 1);
+	}
+}
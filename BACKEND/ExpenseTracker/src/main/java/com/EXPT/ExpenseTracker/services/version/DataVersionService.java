@@ -0,0 +1,24 @@
+package com.EXPT.ExpenseTracker.services.version;
+
+/**
+ * Per-user counter that changes whenever any of the user's ledger rows change,
+ * so read endpoints can answer conditional requests without running their queries.
+ * <p>
+ * By default ({@code data-version.store=memory}) the counters live in this JVM and
+ * a 304 costs no query at all, but that is only correct with a single instance:
+ * another instance never sees the writes this one takes, and would keep answering
+ * 304 to a tag it issued itself. The ETags carry a per-process boot id so tags from
+ * before a restart never match. With {@code data-version.store=database} the counter
+ * is a column of user_balance, bumped in the write's own transaction, and every
+ * instance reads it with one primary-key lookup.
+ */
+public interface DataVersionService {
+
+	long getVersion(Long userId);
+	
+	/** Bumps the user's version, after commit when called inside a transaction. */
+	void bump(Long userId);
+	
+	/** Strong ETag for the current user's data; scope separates representations that also depend on something else (e.g. today's date). */
+	String currentETag(String scope);
+}
@@ -0,0 +1,92 @@
+package com.EXPT.ExpenseTracker.services.version;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.EXPT.ExpenseTracker.repository.UserBalanceRepository;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class DataVersionServiceImpl implements DataVersionService {
+
+	private final CustomUserDetailsService userDetailsService;
+	private final UserBalanceRepository balanceRepository;
+	private final RollupService rollupService;
+	private final TransactionTemplate transactionTemplate;
+	
+	// "memory" (default, single instance only) or "database"
+	@Value("${data-version.store:memory}")
+	private String store;
+	
+	private final String bootId = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+	
+	private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+	
+	@Override
+	public long getVersion(Long userId) {
+		if (persisted()) {
+			return balanceRepository.findDataVersion(userId).orElse(0L);
+		}
+		AtomicLong version = versions.get(userId);
+		return version != null ? version.get() : 0;
+	}
+	
+	@Override
+	public void bump(Long userId) {
+		if (persisted()) {
+			// Joins the write's transaction, so the new version commits or rolls back with the rows.
+			// The writers already hold the balance row's lock; it is only missing for a caller that
+			// bypassed the rollup, and then the rebuild creates it.
+			transactionTemplate.executeWithoutResult(status -> {
+				if (balanceRepository.incrementDataVersion(userId) == 0) {
+					rollupService.rebuild(userId);
+					balanceRepository.incrementDataVersion(userId);
+				}
+			});
+			return;
+		}
+		// Bumping before commit would let a concurrent read cache the old rows under the new tag
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					increment(userId);
+				}
+			});
+		} else {
+			increment(userId);
+		}
+	}
+	
+	private void increment(Long userId) {
+		versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+	}
+	
+	@Override
+	public String currentETag(String scope) {
+		Long userId = userDetailsService.getCurrentUserId();
+		// The user id is part of the tag so a browser shared between accounts can't revalidate someone
+		// else's copy; a persisted version means the same on every instance and after a restart
+		StringBuilder etag = new StringBuilder("\"").append(persisted() ? "db" : bootId).append('-').append(userId).append('-').append(getVersion(userId));
+		if (scope != null) {
+			etag.append('-').append(scope);
+		}
+		return etag.append('"').toString();
+	}
+	
+	private boolean persisted() {
+		return "database".equalsIgnoreCase(store);
+	}
+}
@@ -0,0 +1,71 @@
+package com.EXPT.ExpenseTracker.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 helpers: quoted fields, escaped quotes and commas inside
+ * quotes are supported. A quoted field may hold line breaks; readers join
+ * physical lines while {@link #endsInsideQuotes(String)} holds and then parse
+ * the record with {@link #parseLine(String)}.
+ */
+public final class CsvUtil {
+
+	private CsvUtil() {
+	}
+
+	public static List<String> parseLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quoted field");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	/**
+	 * True when the text opens a quoted field it does not close, i.e. the record
+	 * continues on the next line. Escaped quotes come in pairs, so counting is enough.
+	 */
+	public static boolean endsInsideQuotes(String text) {
+		int quotes = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) == '"') {
+				quotes++;
+			}
+		}
+		return quotes % 2 != 0;
+	}
+
+	public static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,105 @@
+package com.EXPT.ExpenseTracker.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small bounded in-memory cache: least-recently-used eviction once
+ * {@code maxSize} is reached, plus a per-entry expiry time. Hit and miss
+ * counts are kept so callers can report cache effectiveness.
+ */
+public class ExpiringCache<K, V> {
+
+	private final int maxSize;
+	private final long defaultTtlMillis;
+	private final LinkedHashMap<K, Entry<V>> entries;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public ExpiringCache(int maxSize, long defaultTtlMillis) {
+		this.maxSize = maxSize;
+		this.defaultTtlMillis = defaultTtlMillis;
+		// access-order so the eldest entry is the least recently used one
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				return size() > ExpiringCache.this.maxSize;
+			}
+		};
+	}
+
+	/** Returns the cached value, or null if absent or expired. */
+	public V get(K key) {
+		lock.lock();
+		try {
+			Entry<V> entry = entries.get(key);
+			if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+				hits.incrementAndGet();
+				return entry.value;
+			}
+			if (entry != null) {
+				entries.remove(key);
+			}
+			misses.incrementAndGet();
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void put(K key, V value) {
+		put(key, value, System.currentTimeMillis() + defaultTtlMillis);
+	}
+
+	/** Stores a value that expires at the given epoch millis. */
+	public void put(K key, V value, long expiresAt) {
+		lock.lock();
+		try {
+			entries.put(key, new Entry<>(value, expiresAt));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void invalidate(K key) {
+		lock.lock();
+		try {
+			entries.remove(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			entries.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	private record Entry<V>(V value, long expiresAt) {
+	}
+}
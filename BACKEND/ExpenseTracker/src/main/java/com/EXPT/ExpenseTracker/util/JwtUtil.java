@@ -2,14 +2,23 @@ package com.EXPT.ExpenseTracker.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -21,8 +30,40 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours
     private Long JWT_EXPIRATION;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    // Built once; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // token digest -> claims of a token whose signature was already checked, evicted at its exp
+    private ExpiringCache<String, Claims> verifiedTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer parseHitTimer;
+    private Timer parseMissTimer;
+    private Timer validateTimer;
+    private Timer signTimer;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new ExpiringCache<>(verifiedCacheMaxSize, JWT_EXPIRATION);
+
+        parseHitTimer = Timer.builder("jwt.parse").tag("cache", "hit").register(meterRegistry);
+        parseMissTimer = Timer.builder("jwt.parse").tag("cache", "miss").register(meterRegistry);
+        validateTimer = Timer.builder("jwt.validate").register(meterRegistry);
+        signTimer = Timer.builder("jwt.sign").register(meterRegistry);
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
     }
 
     public String extractUsername(String token) {
@@ -38,21 +79,52 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token once and returns all of its claims. Throws a
+     * {@link JwtException} if the signature is invalid or the token has expired.
+     * Recently verified tokens are served from a cache until their expiry.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        long start = System.nanoTime();
+        String digest = digest(token);
+        Claims cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            parseHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        try {
+            // parseClaimsJws also rejects expired tokens
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims, claims.getExpiration().getTime());
+            }
+            return claims;
+        } finally {
+            parseMissTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        return signTimer.record(() -> createToken(claims, userDetails.getUsername()));
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
@@ -66,7 +138,21 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateTimer.record(() -> {
+            final Claims claims = extractAllClaims(token);
+            return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
+        });
+    }
+
+    public long getVerifiedCacheHits() {
+        return verifiedTokens.getHitCount();
+    }
+
+    public long getVerifiedCacheMisses() {
+        return verifiedTokens.getMissCount();
+    }
+
+    public int getVerifiedCacheSize() {
+        return verifiedTokens.size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.EXPT.ExpenseTracker.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in a ledger listing ordered by {@code (date desc, id desc)}.
+ * Serialized as {@code yyyy-MM-dd_id} so it can be passed back as a query parameter.
+ */
+public record LedgerCursor(LocalDate date, long id) {
+
+	public static LedgerCursor parse(String value) {
+		int separator = value.indexOf('_');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor: " + value);
+		}
+		try {
+			return new LedgerCursor(LocalDate.parse(value.substring(0, separator)),
+					Long.parseLong(value.substring(separator + 1)));
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + value);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return date + "_" + id;
+	}
+}
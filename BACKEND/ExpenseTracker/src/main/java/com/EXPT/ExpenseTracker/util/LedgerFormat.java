@@ -0,0 +1,49 @@
+package com.EXPT.ExpenseTracker.util;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Wire formats supported by ledger import and export.
+ */
+public enum LedgerFormat {
+
+	CSV("text/csv", "csv"),
+	NDJSON(NdjsonWriter.CONTENT_TYPE, "ndjson");
+
+	private final String contentType;
+	private final String extension;
+
+	LedgerFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public static LedgerFormat fromContentType(String contentType) {
+		MediaType mediaType = MediaType.parseMediaType(contentType);
+		for (LedgerFormat format : values()) {
+			// ignores parameters such as charset
+			if (MediaType.parseMediaType(format.contentType).equalsTypeAndSubtype(mediaType)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported content type: " + contentType);
+	}
+
+	/** Parses a {@code ?format=} value such as "csv" or "ndjson". */
+	public static LedgerFormat fromName(String name) {
+		for (LedgerFormat format : values()) {
+			if (format.extension.equalsIgnoreCase(name)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported format: " + name);
+	}
+}
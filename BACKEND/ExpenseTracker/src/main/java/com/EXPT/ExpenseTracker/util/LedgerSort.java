@@ -0,0 +1,31 @@
+package com.EXPT.ExpenseTracker.util;
+
+/**
+ * Sort keys supported by the ledger search. Ties are always broken by id.
+ */
+public enum LedgerSort {
+
+	DATE("date"),
+	AMOUNT("amount");
+
+	private final String attribute;
+
+	LedgerSort(String attribute) {
+		this.attribute = attribute;
+	}
+
+	/** Entity attribute the rows are ordered by. */
+	public String getAttribute() {
+		return attribute;
+	}
+
+	/** Parses a {@code ?sort=} value such as "date" or "amount". */
+	public static LedgerSort fromName(String name) {
+		for (LedgerSort sort : values()) {
+			if (sort.attribute.equalsIgnoreCase(name)) {
+				return sort;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported sort: " + name);
+	}
+}
@@ -0,0 +1,44 @@
+package com.EXPT.ExpenseTracker.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes one JSON document per line (application/x-ndjson) straight to an
+ * output stream, so callers never need to hold the whole result in memory.
+ */
+public class NdjsonWriter implements Closeable {
+
+	public static final String CONTENT_TYPE = "application/x-ndjson";
+
+	private final ObjectWriter objectWriter;
+	private final JsonGenerator generator;
+
+	public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+		// let the servlet buffer decide when to flush instead of flushing per row
+		this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.generator = objectMapper.getFactory().createGenerator(out);
+	}
+
+	/** Writes a single row; IO errors are rethrown unchecked so this can be used as a Consumer. */
+	public void write(Object value) {
+		try {
+			objectWriter.writeValue(generator, value);
+			generator.writeRaw('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+}
@@ -0,0 +1,31 @@
+package com.EXPT.ExpenseTracker.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in a search result ordered by {@code (key, id)}, where the key
+ * is the date or the amount depending on the {@link LedgerSort}. Serialized as
+ * {@code key_id} like {@link LedgerCursor}.
+ */
+public record SearchCursor(Comparable<?> key, long id) {
+
+	public static SearchCursor parse(String value, LedgerSort sort) {
+		int separator = value.lastIndexOf('_');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor: " + value);
+		}
+		try {
+			String key = value.substring(0, separator);
+			return new SearchCursor(sort == LedgerSort.AMOUNT ? Integer.valueOf(key) : LocalDate.parse(key),
+					Long.parseLong(value.substring(separator + 1)));
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + value);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return key + "_" + id;
+	}
+}
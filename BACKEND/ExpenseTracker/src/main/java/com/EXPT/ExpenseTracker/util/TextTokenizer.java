@@ -0,0 +1,72 @@
+package com.EXPT.ExpenseTracker.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into the tokens stored in the text search index: runs of
+ * letters and digits, lower-cased and without accents, so "Café-Crème #12"
+ * becomes [cafe, creme, 12]. Letters that an accent-insensitive collation such
+ * as MySQL's utf8mb4_0900_ai_ci equates with plain Latin ones (ß and ss, æ and
+ * ae, ø and o, ...) and digits of other scripts are folded as well, so tokens
+ * that are different strings here are also different keys in the index.
+ * Single characters are dropped and long tokens are cut to
+ * {@link #MAX_TOKEN_LENGTH}. Queries go through the same rules.
+ */
+public final class TextTokenizer {
+
+	public static final int MIN_TOKEN_LENGTH = 2;
+	public static final int MAX_TOKEN_LENGTH = 32;
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	// lower-case letters without a decomposition that the collation still treats as these
+	private static final Map<Character, String> FOLDS = Map.of(
+			'ß', "ss", 'æ', "ae", 'œ', "oe", 'ø', "o", 'ł', "l",
+			'đ', "d", 'ð', "d", 'ħ', "h", 'ı', "i", 'ŧ', "t");
+
+	private TextTokenizer() {
+	}
+
+	/** Distinct tokens in order of first appearance; empty for null or blank text. */
+	public static List<String> tokenize(String text) {
+		if (text == null || text.isBlank()) {
+			return List.of();
+		}
+		String folded = fold(MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("").toLowerCase(Locale.ROOT));
+		Set<String> tokens = new LinkedHashSet<>();
+		for (String token : SEPARATORS.split(folded)) {
+			if (token.length() >= MIN_TOKEN_LENGTH) {
+				tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+			}
+		}
+		return new ArrayList<>(tokens);
+	}
+
+	private static String fold(String text) {
+		StringBuilder folded = null;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			String replacement = FOLDS.get(c);
+			int digit = replacement == null && c > '9' && Character.isDigit(c) ? Character.digit(c, 10) : -1;
+			if (replacement == null && digit < 0) {
+				if (folded != null) {
+					folded.append(c);
+				}
+				continue;
+			}
+			if (folded == null) {
+				folded = new StringBuilder(text.length() + 8).append(text, 0, i);
+			}
+			folded.append(replacement != null ? replacement : Character.forDigit(digit, 10));
+		}
+		return folded != null ? folded.toString() : text;
+	}
+}
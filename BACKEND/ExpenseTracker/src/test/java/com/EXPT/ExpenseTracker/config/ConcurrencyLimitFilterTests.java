@@ -0,0 +1,66 @@
+package com.EXPT.ExpenseTracker.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ConcurrencyLimitFilterTests {
+
+	@Test
+	void automaticLimitFollowsPoolSizeOnlyWithVirtualThreads() {
+		assertEquals(0, create(-1, false, 10).getLimit());
+		assertEquals(20, create(-1, true, 10).getLimit());
+		assertEquals(5, create(5, false, 10).getLimit());
+	}
+
+	@Test
+	void rejectsWith503WhenLimitIsReached() throws Exception {
+		ConcurrencyLimitFilter filter = create(1, true, 10);
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+			try {
+				filter.doFilter(new MockHttpServletRequest("GET", "/api/stats"), new MockHttpServletResponse(), (req, res) -> {
+					entered.countDown();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertTrue(entered.await(5, TimeUnit.SECONDS));
+		assertEquals(1, filter.getInFlight());
+
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/stats"), rejected, (req, res) -> { });
+		assertEquals(503, rejected.getStatus());
+
+		release.countDown();
+		first.get(5, TimeUnit.SECONDS);
+		assertEquals(0, filter.getInFlight());
+	}
+
+	private static ConcurrencyLimitFilter create(int maxInFlight, boolean virtualThreads, int poolSize) {
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter();
+		ReflectionTestUtils.setField(filter, "maxInFlight", maxInFlight);
+		ReflectionTestUtils.setField(filter, "acquireTimeout", Duration.ofMillis(50));
+		ReflectionTestUtils.setField(filter, "virtualThreads", virtualThreads);
+		ReflectionTestUtils.setField(filter, "poolSize", poolSize);
+		filter.init();
+		return filter;
+	}
+}
@@ -0,0 +1,48 @@
+package com.EXPT.ExpenseTracker.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
+
+class LogPatternTests {
+
+	@Test
+	void clientInputCannotStartANewLogLine() throws Exception {
+		LoggerContext context = new LoggerContext();
+		JoranConfigurator configurator = new JoranConfigurator();
+		configurator.setContext(context);
+		configurator.doConfigure(getClass().getResource("/logback-spring.xml"));
+		try {
+			Logger logger = context.getLogger(LogPatternTests.class);
+			AsyncAppender async = (AsyncAppender) context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC_CONSOLE");
+			@SuppressWarnings("unchecked")
+			ConsoleAppender<ch.qos.logback.classic.spi.ILoggingEvent> console =
+					(ConsoleAppender<ch.qos.logback.classic.spi.ILoggingEvent>) async.getAppender("CONSOLE");
+			PatternLayoutEncoder encoder = (PatternLayoutEncoder) console.getEncoder();
+
+			LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.INFO,
+					"Login failed, unknown username={}", null, new Object[] { "bob\r\n2025-01-01 INFO forged" });
+			event.setMDCPropertyMap(Map.of("user", "eve\nroot"));
+
+			String line = encoder.getLayout().doLayout(event);
+
+			assertEquals(1, line.split("\n", -1).length - 1, line);
+			assertTrue(line.contains("user=eve_root"), line);
+			assertTrue(line.contains("username=bob__2025-01-01 INFO forged"), line);
+		} finally {
+			context.stop();
+		}
+	}
+}
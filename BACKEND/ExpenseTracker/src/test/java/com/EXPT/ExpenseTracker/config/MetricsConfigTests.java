@@ -0,0 +1,86 @@
+package com.EXPT.ExpenseTracker.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestClient;
+
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.UserBalanceRepository;
+import com.EXPT.ExpenseTracker.repository.UserRepository;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.util.JwtUtil;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsConfigTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserBalanceRepository balanceRepository;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@LocalManagementPort
+	private int managementPort;
+
+	@AfterEach
+	void tearDown() {
+		userDetailsService.evictUser("metrics-user");
+		balanceRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void prometheusEndpointExposesRequestJwtRepositoryAndPoolMetrics() throws Exception {
+		User user = new User();
+		user.setUsername("metrics-user");
+		user.setEmail("metrics-user@example.com");
+		user.setPassword("x");
+		userRepository.save(user);
+		String token = jwtUtil.generateToken(userDetailsService.loadUserByUsername("metrics-user"));
+
+		mockMvc.perform(get("/api/stats").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+
+		String scrape = RestClient.create().get().uri("http://127.0.0.1:" + managementPort + "/actuator/prometheus")
+				.retrieve().body(String.class);
+
+		assertTrue(scrape.contains("http_server_requests_seconds_bucket"), "request histogram");
+		assertTrue(scrape.contains("uri=\"/api/stats\""), "per-endpoint tag");
+		assertTrue(scrape.contains("jwt_parse_seconds_count"), "jwt timer");
+		assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count"), "repository timer");
+		assertTrue(scrape.contains("spring_data_repository_rows_count"), "repository row counts");
+		assertTrue(scrape.contains("hikaricp_connections_active"), "pool gauges");
+		assertTrue(scrape.contains("password_hash_queue_depth"), "hashing pool gauges");
+		assertTrue(scrape.contains("cache_gets_total{application=\"extrack\",cache=\"principal\""), "cache metrics");
+	}
+
+	@Test
+	void actuatorIsNotServedOnTheApiPort() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().is4xxClientError());
+		mockMvc.perform(get("/actuator/health")).andExpect(status().is4xxClientError());
+		assertTrue(RestClient.create().get().uri("http://127.0.0.1:" + managementPort + "/actuator/health")
+				.retrieve().body(String.class).contains("UP"));
+	}
+}
@@ -0,0 +1,62 @@
+package com.EXPT.ExpenseTracker.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RequestTimingFilterTests {
+
+	private final RequestTimingFilter filter = new RequestTimingFilter();
+
+	@Test
+	void tagsRequestAndClearsMdcAfterwards() throws Exception {
+		ReflectionTestUtils.setField(filter, "slowThresholdMs", 1000L);
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		AtomicReference<String> seen = new AtomicReference<>();
+
+		filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(RequestTimingFilter.MDC_REQUEST_ID)));
+
+		assertNotNull(seen.get());
+		assertEquals(seen.get(), response.getHeader(RequestTimingFilter.REQUEST_ID_HEADER));
+		assertNull(MDC.get(RequestTimingFilter.MDC_REQUEST_ID));
+		assertNull(MDC.get(RequestTimingFilter.MDC_DURATION));
+	}
+
+	@Test
+	void reusesCallerRequestId() throws Exception {
+		ReflectionTestUtils.setField(filter, "slowThresholdMs", 1000L);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stats");
+		request.addHeader(RequestTimingFilter.REQUEST_ID_HEADER, "abc-123");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, (req, res) -> assertEquals("abc-123", MDC.get(RequestTimingFilter.MDC_REQUEST_ID)));
+
+		assertEquals("abc-123", response.getHeader(RequestTimingFilter.REQUEST_ID_HEADER));
+	}
+
+	@Test
+	void replacesMalformedRequestId() throws Exception {
+		ReflectionTestUtils.setField(filter, "slowThresholdMs", 1000L);
+		for (String bad : new String[] { "abc\r\nX-Injected: 1", "<script>", "a b", "x".repeat(65), "" }) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/stats");
+			request.addHeader(RequestTimingFilter.REQUEST_ID_HEADER, bad);
+			MockHttpServletResponse response = new MockHttpServletResponse();
+
+			filter.doFilter(request, response, (req, res) -> { });
+
+			String id = response.getHeader(RequestTimingFilter.REQUEST_ID_HEADER);
+			assertNotNull(id);
+			assertNotEquals(bad, id);
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.EXPT.ExpenseTracker.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.UserRepository;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthControllerTests {
+
+	private static final String SIGNUP = "{\"username\":\"auth-user\",\"email\":\"auth-user@example.com\",\"password\":\"s3cret\"}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@MockitoSpyBean
+	private PasswordEncoder passwordEncoder;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON).content(SIGNUP))
+				.andExpect(status().isOk());
+		clearInvocations(passwordEncoder);
+	}
+
+	@AfterEach
+	void tearDown() {
+		userDetailsService.evictUser("auth-user");
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void loginVerifiesPasswordOnceAndTokenWorks() throws Exception {
+		String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"auth-user\",\"password\":\"s3cret\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.username").value("auth-user"))
+				.andReturn().getResponse().getContentAsString();
+
+		verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+
+		JsonNode response = objectMapper.readTree(body);
+		mockMvc.perform(get("/api/stats").header("Authorization", "Bearer " + response.get("token").asText()))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void loginKeepsExistingErrors() throws Exception {
+		mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"auth-user\",\"password\":\"wrong\"}"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(jsonPath("$.error").value("Invalid password"));
+
+		mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"nobody\",\"password\":\"x\"}"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(jsonPath("$.error").value("User not found"));
+
+		assertEquals(1, userRepository.count());
+	}
+
+	@Test
+	void loginRehashesPasswordStoredWithLowerCost() throws Exception {
+		User user = userRepository.findByUsername("auth-user").orElseThrow();
+		user.setPassword(new BCryptPasswordEncoder(4).encode("s3cret"));
+		userRepository.save(user);
+
+		mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"auth-user\",\"password\":\"s3cret\"}"))
+				.andExpect(status().isOk());
+
+		String rehashed = userRepository.findByUsername("auth-user").orElseThrow().getPassword();
+		assertTrue(rehashed.startsWith("$2a$10$"), rehashed);
+	}
+
+	@Test
+	void duplicateSignupsKeepExistingErrors() throws Exception {
+		// known to the pre-check filters
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON).content(SIGNUP))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Username already exists"));
+
+		// inserted behind the filters' back, so only the unique constraints catch these
+		User ghost = new User();
+		ghost.setUsername("ghost");
+		ghost.setEmail("ghost@example.com");
+		ghost.setPassword("x");
+		userRepository.save(ghost);
+
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"ghost\",\"email\":\"new@example.com\",\"password\":\"x\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Username already exists"));
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"new-user\",\"email\":\"ghost@example.com\",\"password\":\"x\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Email already exists"));
+
+		assertEquals(2, userRepository.count());
+	}
+}
@@ -0,0 +1,126 @@
+package com.EXPT.ExpenseTracker.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.MonthlyTotalRepository;
+import com.EXPT.ExpenseTracker.repository.UserBalanceRepository;
+import com.EXPT.ExpenseTracker.repository.UserRepository;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.expense.ExpenseService;
+import com.EXPT.ExpenseTracker.services.stats.StatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalReadTests {
+
+	private static final String EXPENSE = "{\"title\":\"Coffee\",\"category\":\"Food\",\"amount\":4,\"date\":\"2025-01-15\"}";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private UserBalanceRepository balanceRepository;
+
+	@Autowired
+	private MonthlyTotalRepository monthlyTotalRepository;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@MockitoSpyBean
+	private StatsService statsService;
+
+	@MockitoSpyBean
+	private ExpenseService expenseService;
+
+	private String bearer;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"etag-user\",\"email\":\"etag-user@example.com\",\"password\":\"s3cret\"}"))
+				.andExpect(status().isOk());
+		String body = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"etag-user\",\"password\":\"s3cret\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		bearer = "Bearer " + objectMapper.readTree(body).get("token").asText();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userDetailsService.evictUser("etag-user");
+		expenseRepository.deleteAll();
+		balanceRepository.deleteAll();
+		monthlyTotalRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void unchangedStatsAnswer304WithoutRunningTheService() throws Exception {
+		String etag = mockMvc.perform(get("/api/stats").header("Authorization", bearer))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		clearInvocations(statsService);
+
+		mockMvc.perform(get("/api/stats").header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+		verifyNoInteractions(statsService);
+	}
+
+	@Test
+	void writeInvalidatesTheTag() throws Exception {
+		String etag = mockMvc.perform(get("/api/expense/all").header("Authorization", bearer))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		clearInvocations(expenseService);
+		mockMvc.perform(get("/api/expense/all").header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		verifyNoInteractions(expenseService);
+
+		mockMvc.perform(post("/api/expense").header("Authorization", bearer).contentType(MediaType.APPLICATION_JSON).content(EXPENSE))
+				.andExpect(status().isCreated());
+
+		String changed = mockMvc.perform(get("/api/expense/all").header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, changed);
+		// Stats share the same per-user version
+		mockMvc.perform(get("/api/stats").header("Authorization", bearer).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+}
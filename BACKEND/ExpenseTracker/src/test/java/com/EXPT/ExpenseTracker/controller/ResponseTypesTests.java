@@ -0,0 +1,113 @@
+package com.EXPT.ExpenseTracker.controller;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.EXPT.ExpenseTracker.ExpenseTrackerApplication;
+
+import jakarta.persistence.Entity;
+
+/**
+ * Controllers return {@code ResponseEntity<?>}, so besides the handler signatures
+ * this walks every method of the service interfaces the controllers depend on:
+ * whatever a handler can put in a body has to come from one of them.
+ */
+class ResponseTypesTests {
+
+	private static final String BASE_PACKAGE = ExpenseTrackerApplication.class.getPackageName();
+
+	@Test
+	void noResponseTypeReachesAnEntity() throws ClassNotFoundException {
+		List<String> violations = new ArrayList<>();
+		List<Class<?>> controllers = controllers();
+		assertFalse(controllers.isEmpty());
+
+		for (Class<?> controller : controllers) {
+			for (Method method : controller.getDeclaredMethods()) {
+				if (AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)) {
+					walk(method.getGenericReturnType(), controller.getSimpleName() + "." + method.getName(), new HashSet<>(), violations);
+				}
+			}
+			for (Field field : controller.getDeclaredFields()) {
+				Class<?> type = field.getType();
+				if (type.isInterface() && type.getPackageName().startsWith(BASE_PACKAGE + ".services")) {
+					for (Method method : type.getMethods()) {
+						String where = type.getSimpleName() + "." + method.getName();
+						walk(method.getGenericReturnType(), where, new HashSet<>(), violations);
+						// streaming methods hand their rows to a callback instead of returning them
+						for (Type parameter : method.getGenericParameterTypes()) {
+							walk(parameter, where, new HashSet<>(), violations);
+						}
+					}
+				}
+			}
+		}
+		assertTrue(violations.isEmpty(), "Entities reachable from responses: " + violations);
+	}
+
+	private static List<Class<?>> controllers() throws ClassNotFoundException {
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+		List<Class<?>> controllers = new ArrayList<>();
+		for (BeanDefinition candidate : scanner.findCandidateComponents(BASE_PACKAGE)) {
+			controllers.add(Class.forName(candidate.getBeanClassName()));
+		}
+		return controllers;
+	}
+
+	private static void walk(Type type, String where, Set<Type> seen, List<String> violations) {
+		if (!seen.add(type)) {
+			return;
+		}
+		if (type instanceof ParameterizedType parameterized) {
+			walk(parameterized.getRawType(), where, seen, violations);
+			for (Type argument : parameterized.getActualTypeArguments()) {
+				walk(argument, where, seen, violations);
+			}
+		} else if (type instanceof WildcardType wildcard) {
+			for (Type bound : wildcard.getUpperBounds()) {
+				walk(bound, where, seen, violations);
+			}
+		} else if (type instanceof TypeVariable<?> variable) {
+			for (Type bound : variable.getBounds()) {
+				walk(bound, where, seen, violations);
+			}
+		} else if (type instanceof GenericArrayType array) {
+			walk(array.getGenericComponentType(), where, seen, violations);
+		} else if (type instanceof Class<?> clazz) {
+			if (clazz.isArray()) {
+				walk(clazz.getComponentType(), where, seen, violations);
+			} else if (clazz.isAnnotationPresent(Entity.class)) {
+				violations.add(where + " -> " + clazz.getSimpleName());
+			} else if (clazz.getPackageName().startsWith(BASE_PACKAGE)) {
+				// our own DTOs: check what they carry
+				for (Field field : clazz.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						walk(field.getGenericType(), where + "." + field.getName(), seen, violations);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.EXPT.ExpenseTracker.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.EXPT.ExpenseTracker.services.expense.RecordingStatementInspector;
+
+/**
+ * Checks on the embedded database that the per-user queries are answered from
+ * the composite indexes declared on Expense and Income instead of a table scan.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.EXPT.ExpenseTracker.services.expense.RecordingStatementInspector")
+@ActiveProfiles("test")
+class QueryPlanTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@ParameterizedTest
+	@ValueSource(strings = { "expense", "income" })
+	void dateRangeUsesUserDateIndex(String table) {
+		assertPlanUses("idx_" + table + "_user_date",
+				"SELECT id FROM " + table + " WHERE user_id = 1 AND date BETWEEN DATE '2024-01-01' AND DATE '2024-12-31'");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "expense", "income" })
+	void latestRowUsesUserDateIndex(String table) {
+		assertPlanUses("idx_" + table + "_user_date",
+				"SELECT id FROM " + table + " WHERE user_id = 1 ORDER BY date DESC, id DESC LIMIT 1");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "expense", "income" })
+	void keysetPageUsesUserDateIndex(String table) {
+		assertPlanUses("idx_" + table + "_user_date",
+				"SELECT id FROM " + table + " WHERE user_id = 1 AND (date < DATE '2024-06-01' OR (date = DATE '2024-06-01' AND id < 10)) "
+						+ "ORDER BY date DESC, id DESC LIMIT 50");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "expense", "income" })
+	void categoryFilterUsesUserCategoryIndex(String table) {
+		assertPlanUses("idx_" + table + "_user_category_date",
+				"SELECT id FROM " + table + " WHERE user_id = 1 AND category = 'Food'");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "expense", "income" })
+	void categorySearchPageUsesUserCategoryIndex(String table) {
+		assertPlanUses("idx_" + table + "_user_category_date",
+				"SELECT id FROM " + table + " WHERE user_id = 1 AND category = 'Food' AND date IS NOT NULL "
+						+ "AND (date < DATE '2024-06-01' OR (date = DATE '2024-06-01' AND id < 10)) ORDER BY date DESC, id DESC LIMIT 50");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "expense", "income" })
+	void amountSearchPageUsesUserAmountIndex(String table) {
+		assertPlanUses("idx_" + table + "_user_amount",
+				"SELECT id FROM " + table + " WHERE user_id = 1 AND amount IS NOT NULL AND amount >= 10 AND amount <= 500 "
+						+ "AND (amount < 200 OR (amount = 200 AND id < 10)) ORDER BY amount DESC, id DESC LIMIT 50");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "expense", "income" })
+	void categoryBreakdownUsesUserCategoryIndex(String table) {
+		// The statement Hibernate generates for sumByCategory, optional bounds included
+		RecordingStatementInspector.clear();
+		LocalDate from = LocalDate.of(2024, 1, 1);
+		LocalDate to = LocalDate.of(2024, 12, 31);
+		if ("income".equals(table)) {
+			incomeRepository.sumByCategory(1L, from, to);
+		} else {
+			expenseRepository.sumByCategory(1L, from, to);
+		}
+		List<String> statements = RecordingStatementInspector.statements();
+		assertEquals(1, statements.size(), () -> "expected one statement, got " + statements);
+
+		// user id, then each bound twice: once for IS NULL, once for the comparison
+		assertPlanUses("idx_" + table + "_user_category_date", statements.get(0),
+				1L, Date.valueOf(from), Date.valueOf(from), Date.valueOf(to), Date.valueOf(to));
+	}
+
+	@Test
+	void tokenPrefixUsesTokenLookupIndex() {
+		assertPlanUses("idx_ledger_token_lookup",
+				"SELECT kind, entry_id, MAX(weight) FROM ledger_token WHERE user_id = 1 AND token LIKE 'amaz%' ESCAPE '!' "
+						+ "GROUP BY kind, entry_id");
+	}
+
+	private void assertPlanUses(String index, String sql, Object... args) {
+		String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+		assertTrue(plan.toLowerCase().contains(index), () -> "expected " + index + " in plan:\n" + plan);
+	}
+}
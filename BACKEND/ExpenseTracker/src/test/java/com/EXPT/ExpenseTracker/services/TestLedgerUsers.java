@@ -0,0 +1,74 @@
+package com.EXPT.ExpenseTracker.services;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.repository.MonthlyTotalRepository;
+import com.EXPT.ExpenseTracker.repository.TextIndexStateRepository;
+import com.EXPT.ExpenseTracker.repository.UserBalanceRepository;
+import com.EXPT.ExpenseTracker.repository.UserRepository;
+import com.EXPT.ExpenseTracker.services.ledgercache.LedgerCacheService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Users and cleanup shared by the service tests. Picked up by component scan,
+ * so every test context has it. {@link #cleanUp()} removes every user and all
+ * their rows and drops whatever the caches hold for them, so it is safe to call
+ * from {@code @AfterEach} whatever the test created.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestLedgerUsers {
+
+	private final UserRepository userRepository;
+	private final ExpenseRepository expenseRepository;
+	private final IncomeRepository incomeRepository;
+	private final UserBalanceRepository balanceRepository;
+	private final MonthlyTotalRepository monthlyTotalRepository;
+	private final TextIndexStateRepository stateRepository;
+	private final CustomUserDetailsService userDetailsService;
+	private final LedgerCacheService ledgerCacheService;
+	private final JdbcTemplate jdbcTemplate;
+
+	public User save(String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPassword("x");
+		return userRepository.save(user);
+	}
+
+	public User saveAndLogin(String username) {
+		User user = save(username);
+		login(user);
+		return user;
+	}
+
+	public void login(User user) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user.getUsername(), null, List.of()));
+	}
+
+	public void cleanUp() {
+		SecurityContextHolder.clearContext();
+		for (User user : userRepository.findAll()) {
+			ledgerCacheService.invalidate(user.getId());
+			userDetailsService.evictUser(user.getUsername());
+		}
+		jdbcTemplate.update("DELETE FROM ledger_token");
+		stateRepository.deleteAll();
+		expenseRepository.deleteAll();
+		incomeRepository.deleteAll();
+		balanceRepository.deleteAll();
+		monthlyTotalRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+}
@@ -0,0 +1,222 @@
+package com.EXPT.ExpenseTracker.services.expense;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.EXPT.ExpenseTracker.dto.CursorPage;
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.LedgerSearch;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+import com.EXPT.ExpenseTracker.util.LedgerSort;
+
+import jakarta.persistence.EntityNotFoundException;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.EXPT.ExpenseTracker.services.expense.RecordingStatementInspector")
+@ActiveProfiles("test")
+class ExpenseServiceImplTests {
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	// Statements on the ledger row itself; the rollups' own reads and aggregates are left out
+	private static final Pattern LEDGER_ROW = Pattern.compile("^(select (?!.*sum\\().* from expense .*|update expense .*|delete from expense .*)$");
+
+	private User user;
+
+	private Expense april;
+
+	@BeforeEach
+	void setUp() {
+		user = users.save("expense-user");
+
+		saveExpense(user, "Jan", LocalDate.of(2024, 1, 5));
+		saveExpense(user, "Feb A", LocalDate.of(2024, 2, 10));
+		saveExpense(user, "Feb B", LocalDate.of(2024, 2, 10));
+		saveExpense(user, "Mar", LocalDate.of(2024, 3, 1));
+		april = saveExpense(user, "Apr", LocalDate.of(2024, 4, 1));
+
+		users.login(user);
+	}
+
+	@AfterEach
+	void tearDown() {
+		users.cleanUp();
+	}
+
+	@Test
+	void pagesWalkTheLedgerNewestFirst() {
+		List<String> titles = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			CursorPage<ExpenseDTO> page = expenseService.getExpensePage(cursor, 2);
+			page.getItems().forEach(expense -> titles.add(expense.getTitle()));
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(List.of("Apr", "Mar", "Feb B", "Feb A", "Jan"), titles);
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		CursorPage<ExpenseDTO> page = expenseService.getExpensePage(null, 5);
+
+		assertEquals(5, page.getItems().size());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void streamMatchesPagedOrder() {
+		List<String> titles = new ArrayList<>();
+		expenseService.streamAllExpenses(expense -> titles.add(expense.getTitle()));
+
+		assertEquals(List.of("Apr", "Mar", "Feb B", "Feb A", "Jan"), titles);
+	}
+
+	@Test
+	void searchCombinesFiltersAndPagesInSortOrder() {
+		saveExpense(user, "Groceries weekly", LocalDate.of(2024, 2, 12), "Food", 40);
+		saveExpense(user, "Groceries bulk", LocalDate.of(2024, 3, 3), "Food", 120);
+		saveExpense(user, "Dinner", LocalDate.of(2024, 3, 20), "Food", 60);
+		saveExpense(users.save("expense-other"), "Groceries elsewhere", LocalDate.of(2024, 3, 3), "Food", 50);
+
+		assertEquals(List.of("Groceries weekly", "Groceries bulk"),
+				searchTitles(new LedgerSearch("Food", null, null, null, null, "GROCER", LedgerSort.AMOUNT, false), 1));
+		assertEquals(List.of("Dinner", "Groceries bulk"),
+				searchTitles(new LedgerSearch("Food", 50, null, null, null, null, LedgerSort.DATE, true), 1));
+		// equal amounts fall back to id order across page boundaries
+		assertEquals(List.of("Mar", "Feb B", "Feb A", "Dinner", "Groceries weekly"),
+				searchTitles(new LedgerSearch(null, null, 100, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 31), null,
+						LedgerSort.AMOUNT, true), 2));
+		// wildcards in the text are matched literally
+		assertTrue(searchTitles(new LedgerSearch(null, null, null, null, null, "%", null, true), 10).isEmpty());
+	}
+
+	@Test
+	void searchRejectsBadInput() {
+		LedgerSearch byAmount = new LedgerSearch(null, null, null, null, null, null, LedgerSort.AMOUNT, true);
+
+		assertThrows(IllegalArgumentException.class, () -> expenseService.searchExpenses(byAmount, "2024-01-01_3", 10));
+		assertThrows(IllegalArgumentException.class, () -> expenseService.searchExpenses(byAmount, null, 0));
+		assertThrows(IllegalArgumentException.class, () -> new LedgerSearch(null, 10, 5, null, null, null, null, true));
+		assertThrows(IllegalArgumentException.class,
+				() -> new LedgerSearch(null, null, null, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), null, null, true));
+	}
+
+	@Test
+	void updateRunsOneLockedReadAndOneUpdate() {
+		warmUp();
+
+		ExpenseDTO updated = expenseService.updateExpense(april.getId(),
+				new ExpenseDTO(null, "Apr rent", "moved", "Housing", LocalDate.of(2024, 4, 2), 900));
+
+		assertEquals(List.of("select for update", "update"), ledgerStatements());
+		assertFalse(touchesUsers());
+		assertEquals("Apr rent", updated.getTitle());
+		assertEquals(900, expenseRepository.findById(april.getId()).orElseThrow().getAmount());
+	}
+
+	@Test
+	void deleteRunsOneLockedReadAndOneDelete() {
+		warmUp();
+
+		expenseService.deleteExpense(april.getId());
+
+		assertEquals(List.of("select for update", "delete"), ledgerStatements());
+		assertFalse(touchesUsers());
+		assertFalse(expenseRepository.existsById(april.getId()));
+	}
+
+	@Test
+	void foreignRowIsForbiddenAndMissingRowIsNotFound() {
+		User other = users.save("expense-other");
+		Expense foreign = saveExpense(other, "Not mine", LocalDate.of(2024, 5, 1));
+		ExpenseDTO change = new ExpenseDTO(null, "Mine now", null, "General", LocalDate.of(2024, 5, 1), 1);
+
+		assertThrows(AccessDeniedException.class, () -> expenseService.updateExpense(foreign.getId(), change));
+		assertThrows(AccessDeniedException.class, () -> expenseService.deleteExpense(foreign.getId()));
+		assertThrows(EntityNotFoundException.class, () -> expenseService.updateExpense(foreign.getId() + 1000, change));
+		assertThrows(EntityNotFoundException.class, () -> expenseService.deleteExpense(foreign.getId() + 1000));
+		assertEquals("Not mine", expenseRepository.findById(foreign.getId()).orElseThrow().getTitle());
+	}
+
+	// Resolves the principal and builds the balance row so only the mutation itself is recorded
+	private void warmUp() {
+		userDetailsService.getCurrentUserId();
+		rollupService.getBalance(user.getId());
+		RecordingStatementInspector.clear();
+	}
+
+	private static List<String> ledgerStatements() {
+		return RecordingStatementInspector.statements().stream()
+				.map(sql -> sql.toLowerCase().replaceAll("\\s+", " ").trim())
+				.filter(sql -> LEDGER_ROW.matcher(sql).matches())
+				.map(sql -> sql.endsWith(" for update") ? "select for update" : sql.substring(0, sql.indexOf(' ')))
+				.toList();
+	}
+
+	private static boolean touchesUsers() {
+		return RecordingStatementInspector.statements().stream().anyMatch(sql -> sql.toLowerCase().matches("(?s).*\\busers\\b.*"));
+	}
+
+	private List<String> searchTitles(LedgerSearch search, int pageSize) {
+		List<String> titles = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPage<ExpenseDTO> page = expenseService.searchExpenses(search, cursor, pageSize);
+			page.getItems().forEach(expense -> titles.add(expense.getTitle()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return titles;
+	}
+
+	private Expense saveExpense(User owner, String title, LocalDate date) {
+		return saveExpense(owner, title, date, "General", 100);
+	}
+
+	private Expense saveExpense(User owner, String title, LocalDate date, String category, int amount) {
+		Expense expense = new Expense();
+		expense.setTitle(title);
+		expense.setAmount(amount);
+		expense.setDate(date);
+		expense.setCategory(category);
+		expense.setUser(owner);
+		return expenseRepository.save(expense);
+	}
+}
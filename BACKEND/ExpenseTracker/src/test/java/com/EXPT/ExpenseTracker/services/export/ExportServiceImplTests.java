@@ -0,0 +1,95 @@
+package com.EXPT.ExpenseTracker.services.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceImplTests {
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	private User user;
+
+	private long taxiId;
+
+	@BeforeEach
+	void setUp() {
+		user = users.save("export-user");
+
+		Expense taxi = new Expense();
+		taxi.setTitle("Taxi, late night");
+		taxi.setAmount(20);
+		taxi.setDate(LocalDate.of(2024, 1, 2));
+		taxi.setCategory("Travel");
+		taxi.setUser(user);
+		taxiId = expenseRepository.save(taxi).getId();
+
+		Income salary = new Income();
+		salary.setTitle("Salary");
+		salary.setAmount(5000);
+		salary.setDate(LocalDate.of(2024, 1, 1));
+		salary.setCategory("Job");
+		salary.setUser(user);
+		incomeRepository.save(salary);
+
+		users.login(user);
+	}
+
+	@AfterEach
+	void tearDown() {
+		users.cleanUp();
+	}
+
+	@Test
+	void exportsExpensesAsCsv() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportLedger(LedgerKind.EXPENSE, LedgerFormat.CSV, out);
+
+		assertEquals("id,date,title,category,amount,description\n"
+				+ taxiId + ",2024-01-02,\"Taxi, late night\",Travel,20,\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void exportsCombinedLedgerAsNdjson() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exportService.exportCombinedLedger(LedgerFormat.NDJSON, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[0].contains("\"kind\":\"income\""));
+		assertTrue(lines[1].contains("\"kind\":\"expense\""));
+		assertTrue(lines[1].contains("\"date\":\"2024-01-02\""));
+	}
+}
@@ -0,0 +1,129 @@
+package com.EXPT.ExpenseTracker.services.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.EXPT.ExpenseTracker.dto.ImportResultDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+import com.EXPT.ExpenseTracker.services.export.ExportService;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+
+@SpringBootTest(properties = { "import.batch-size=2", "import.chunk-size=3" })
+@ActiveProfiles("test")
+class ImportServiceImplTests {
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = users.saveAndLogin("import-user");
+	}
+
+	@AfterEach
+	void tearDown() {
+		users.cleanUp();
+	}
+
+	@Test
+	void importsCsvAndReportsBadRows() throws IOException {
+		String csv = """
+				date,title,amount,category,description
+				2024-01-01,Coffee,3,Food,
+				2024-01-02,"Books, used",12,Education,"said ""thanks""\"
+				2024-01-03,Missing amount,,Food,
+				not-a-date,Bad date,5,Food,
+				2024-01-04,Taxi,20,Travel,
+				2024-01-05,Lunch,9,Food,
+				2024-01-06,Cinema,11,Fun,
+				""";
+
+		ImportResultDTO result = importService.importLedger(LedgerKind.EXPENSE, LedgerFormat.CSV, stream(csv));
+
+		assertEquals(5, result.getImported());
+		assertEquals(2, result.getRejected());
+		assertEquals(4, result.getErrors().get(0).getLine());
+		assertEquals(5, result.getErrors().get(1).getLine());
+
+		List<Expense> expenses = expenseRepository.findByUserId(user.getId());
+		assertEquals(5, expenses.size());
+		Expense books = expenses.stream().filter(e -> e.getTitle().startsWith("Books")).findFirst().orElseThrow();
+		assertEquals("Books, used", books.getTitle());
+		assertEquals("said \"thanks\"", books.getDescription());
+	}
+
+	@Test
+	void importsNdjson() throws IOException {
+		String ndjson = """
+				{"title":"Salary","amount":5000,"date":"2024-01-31","category":"Job"}
+				{"title":"","amount":1,"date":"2024-02-01"}
+				{"title":"Interest","amount":12,"date":"2024-02-28","description":"savings"}
+				""";
+
+		ImportResultDTO result = importService.importLedger(LedgerKind.INCOME, LedgerFormat.NDJSON, stream(ndjson));
+
+		assertEquals(2, result.getImported());
+		assertEquals(1, result.getRejected());
+		assertEquals(2, incomeRepository.findByUserId(user.getId()).size());
+	}
+
+	@Test
+	void csvExportWithLineBreaksImportsBack() throws IOException {
+		String ndjson = """
+				{"title":"Groceries","amount":30,"date":"2024-03-01","description":"milk\\nbread, \\"rye\\"\\r\\neggs"}
+				{"title":"Rent","amount":700,"date":"2024-03-02"}
+				""";
+		importService.importLedger(LedgerKind.EXPENSE, LedgerFormat.NDJSON, stream(ndjson));
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		exportService.exportLedger(LedgerKind.EXPENSE, LedgerFormat.CSV, csv);
+		expenseRepository.deleteAll();
+
+		String stray = "2024-03-03,\"Unclosed,5,Food,\n2024-03-04,Bus,2,Travel,\n";
+		ImportResultDTO result = importService.importLedger(LedgerKind.EXPENSE, LedgerFormat.CSV,
+				stream(csv.toString(StandardCharsets.UTF_8) + stray));
+
+		assertEquals(2, result.getImported());
+		assertEquals(1, result.getRejected());
+		// the unclosed quote takes the Bus line with it and the record is reported where it starts
+		assertEquals(6, result.getErrors().get(0).getLine());
+		List<Expense> expenses = expenseRepository.findByUserId(user.getId());
+		Expense groceries = expenses.stream().filter(e -> e.getTitle().equals("Groceries")).findFirst().orElseThrow();
+		// line breaks inside a field are read back as \n
+		assertEquals("milk\nbread, \"rye\"\neggs", groceries.getDescription());
+	}
+
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
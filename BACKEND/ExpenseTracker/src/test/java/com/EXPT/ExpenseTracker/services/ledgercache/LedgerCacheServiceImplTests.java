@@ -0,0 +1,229 @@
+package com.EXPT.ExpenseTracker.services.ledgercache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.EXPT.ExpenseTracker.dto.CursorPage;
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.dto.StatsDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+import com.EXPT.ExpenseTracker.services.expense.ExpenseService;
+import com.EXPT.ExpenseTracker.services.expense.RecordingStatementInspector;
+import com.EXPT.ExpenseTracker.services.importer.ImportService;
+import com.EXPT.ExpenseTracker.services.income.IncomeService;
+import com.EXPT.ExpenseTracker.services.stats.StatsService;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+
+@SpringBootTest(properties = {
+		"ledger-cache.enabled=true",
+		"ledger-cache.admit-after=1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.EXPT.ExpenseTracker.services.expense.RecordingStatementInspector" })
+@ActiveProfiles("test")
+class LedgerCacheServiceImplTests {
+
+	private static final Pattern LEDGER_READ = Pattern.compile("^select .* from (expense|income)\\b.*$");
+
+	@Autowired
+	private LedgerCacheService ledgerCacheService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private IncomeService incomeService;
+
+	@Autowired
+	private StatsService statsService;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = users.saveAndLogin("cache-user");
+	}
+
+	@AfterEach
+	void tearDown() {
+		try {
+			cache().setMaxSize(DataSize.ofMegabytes(256));
+			cache().setMaxAge(Duration.ofMinutes(5));
+		} finally {
+			users.cleanUp();
+		}
+	}
+
+	@Test
+	void answersStatsChartAndListsWithoutReadingTheLedgerTables() {
+		LocalDate today = LocalDate.now();
+		ExpenseDTO rent = expenseService.postExpense(expense("Rent", 900, today.minusDays(2)));
+		expenseService.postExpense(expense("Coffee", 4, today.minusDays(1)));
+		expenseService.postExpense(expense("Coffee", 6, today.minusDays(1)));
+		incomeService.postIncome(new IncomeDTO(null, "Salary", 3000, today.minusDays(3), "Work", null));
+
+		// the first read loads the user; every later one is served from the columns
+		statsService.getStats();
+		RecordingStatementInspector.clear();
+
+		StatsDTO stats = statsService.getStats();
+		assertEquals(3000.0, stats.getIncome());
+		assertEquals(910.0, stats.getExpense());
+		assertEquals(4.0, stats.getMinExpense());
+		assertEquals(900.0, stats.getMaxExpense());
+		assertEquals("Salary", stats.getLatestIncome().getTitle());
+		assertEquals(6, stats.getLatestExpense().getAmount());
+
+		assertEquals(3, statsService.getChartData().getExpenseList().size());
+		long[] daily = statsService.getChartSeries("day", today.minusDays(2), today).getExpense();
+		assertArrayEquals(new long[] { 900, 10, 0 }, daily);
+
+		CursorPage<ExpenseDTO> first = expenseService.getExpensePage(null, 2);
+		assertEquals(List.of(6, 4), first.getItems().stream().map(ExpenseDTO::getAmount).toList());
+		CursorPage<ExpenseDTO> second = expenseService.getExpensePage(first.getNextCursor(), 2);
+		assertEquals(List.of(rent.getId()), second.getItems().stream().map(ExpenseDTO::getId).toList());
+		assertNull(second.getNextCursor());
+		assertEquals(List.of("Salary"), incomeService.getAllIncomes().stream().map(IncomeDTO::getTitle).toList());
+
+		assertEquals(List.of(), ledgerReads());
+	}
+
+	@Test
+	void writesGoThroughToTheCachedLedger() {
+		LocalDate date = LocalDate.of(2024, 3, 1);
+		ExpenseDTO rent = expenseService.postExpense(expense("Rent", 900, date));
+		expenseService.getAllExpenses();
+
+		ExpenseDTO groceries = expenseService.postExpense(expense("Groceries", 50, date.plusDays(1)));
+		expenseService.updateExpense(rent.getId(), expense("Rent", 950, date.plusDays(2)));
+		RecordingStatementInspector.clear();
+
+		assertEquals(List.of("Rent", "Groceries"), expenseService.getAllExpenses().stream().map(ExpenseDTO::getTitle).toList());
+		assertEquals(1000.0, statsService.getStats().getExpense());
+
+		expenseService.deleteExpense(groceries.getId());
+		RecordingStatementInspector.clear();
+		assertEquals(950.0, statsService.getStats().getExpense());
+		assertEquals(List.of(), ledgerReads());
+	}
+
+	@Test
+	void bulkImportDropsTheCachedLedger() throws IOException {
+		expenseService.postExpense(expense("Rent", 900, LocalDate.of(2024, 3, 1)));
+		expenseService.getAllExpenses();
+
+		importService.importLedger(LedgerKind.EXPENSE, LedgerFormat.CSV, new ByteArrayInputStream(
+				"date,title,amount\n2024-03-02,Taxi,30\n".getBytes(StandardCharsets.UTF_8)));
+		RecordingStatementInspector.clear();
+
+		assertEquals(List.of("Taxi", "Rent"), expenseService.getAllExpenses().stream().map(ExpenseDTO::getTitle).toList());
+		// reloaded once, from both tables
+		assertEquals(2, ledgerReads().size());
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedUserWhenOverBudget() {
+		expenseService.postExpense(expense("Rent", 900, LocalDate.of(2024, 3, 1)));
+		expenseService.getAllExpenses();
+		long oneUser = ledgerCacheService.getEstimatedBytes();
+		cache().setMaxSize(DataSize.ofBytes(oneUser + oneUser / 2));
+
+		users.saveAndLogin("cache-user-2");
+		expenseService.postExpense(expense("Rent", 800, LocalDate.of(2024, 3, 1)));
+		expenseService.getAllExpenses();
+		assertEquals(1, ledgerCacheService.getUserCount());
+
+		users.login(user);
+		long misses = ledgerCacheService.getMissCount();
+		assertEquals(900, expenseService.getAllExpenses().get(0).getAmount());
+		assertEquals(misses + 1, ledgerCacheService.getMissCount());
+	}
+
+	@Test
+	void reloadsLedgersOlderThanMaxAge() throws InterruptedException {
+		expenseService.postExpense(expense("Rent", 900, LocalDate.of(2024, 3, 1)));
+		expenseService.getAllExpenses();
+
+		// a row written by another instance: no write-through reaches this one
+		Expense elsewhere = new Expense();
+		elsewhere.setTitle("Taxi");
+		elsewhere.setCategory("General");
+		elsewhere.setAmount(30);
+		elsewhere.setDate(LocalDate.of(2024, 3, 2));
+		elsewhere.setUser(user);
+		expenseRepository.save(elsewhere);
+		assertEquals(List.of("Rent"), expenseService.getAllExpenses().stream().map(ExpenseDTO::getTitle).toList());
+
+		cache().setMaxAge(Duration.ofMillis(1));
+		Thread.sleep(5);
+		RecordingStatementInspector.clear();
+		assertEquals(List.of("Taxi", "Rent"), expenseService.getAllExpenses().stream().map(ExpenseDTO::getTitle).toList());
+		// reloaded from both tables without waiting to be admitted again
+		assertEquals(2, ledgerReads().size());
+		assertEquals(1, ledgerCacheService.getUserCount());
+	}
+
+	@Test
+	void columnsStayOrderedByDateThenId() {
+		LedgerColumns columns = new LedgerColumns(0);
+		columns.upsert(3, LocalDate.of(2024, 1, 2), 30, "Food", "c", null);
+		columns.upsert(1, LocalDate.of(2024, 1, 2), 10, "Food", "a", null);
+		columns.upsert(2, null, null, null, "undated", null);
+		columns.upsert(3, LocalDate.of(2023, 12, 31), 35, "Travel", "c", null);
+
+		assertEquals(List.of(2L, 3L, 1L), List.of(columns.id(0), columns.id(1), columns.id(2)));
+		assertEquals("Travel", columns.category(1));
+		assertEquals(45, columns.sum(0, columns.size()));
+		assertEquals(10, columns.min());
+		assertEquals(2, columns.firstAtOrAfter(LocalDate.of(2024, 1, 2), 1));
+
+		columns.remove(3);
+		assertEquals(List.of("a", "undated"), columns.newestFirst(columns.size(), 10, columns::title));
+	}
+
+	private LedgerCacheServiceImpl cache() {
+		return AopTestUtils.getTargetObject(ledgerCacheService);
+	}
+
+	private List<String> ledgerReads() {
+		return RecordingStatementInspector.statements().stream()
+				.map(String::toLowerCase)
+				.filter(sql -> LEDGER_READ.matcher(sql).matches())
+				.toList();
+	}
+
+	private static ExpenseDTO expense(String title, int amount, LocalDate date) {
+		return new ExpenseDTO(null, title, null, "General", date, amount);
+	}
+}
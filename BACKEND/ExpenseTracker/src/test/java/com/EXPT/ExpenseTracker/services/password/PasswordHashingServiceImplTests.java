@@ -0,0 +1,113 @@
+package com.EXPT.ExpenseTracker.services.password;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceImplTests {
+
+	private PasswordHashingServiceImpl service;
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void hashesAndUpgradesWeakerCost() {
+		service = create(new BCryptPasswordEncoder(6), 2, 4);
+
+		String hash = service.encode("secret");
+
+		assertTrue(service.matches("secret", hash));
+		assertFalse(service.matches("other", hash));
+		assertFalse(service.upgradeEncoding(hash));
+		assertTrue(service.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+		assertTrue(service.getMeanWaitMillis() > 0);
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		service = create(new BlockingEncoder(started, release), 1, 1);
+
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("a"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("b"));
+		while (service.getQueueDepth() < 1) {
+			Thread.onSpinWait();
+		}
+
+		assertThrows(PasswordHashingRejectedException.class, () -> service.encode("c"));
+		assertEquals(1, service.getRejectedCount());
+
+		release.countDown();
+		assertEquals("a", running.get(5, TimeUnit.SECONDS));
+		assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void timedOutCallerGivesBackItsQueueSlot() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		service = create(new BlockingEncoder(started, release), 1, 1, Duration.ofMillis(200));
+
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("a"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		assertThrows(PasswordHashingRejectedException.class, () -> service.encode("b"));
+		assertEquals(0, service.getQueueDepth());
+
+		// the running hash isn't interrupted; its caller gives up all the same
+		release.countDown();
+		assertThrows(Exception.class, () -> running.get(5, TimeUnit.SECONDS));
+		assertEquals(2, service.getRejectedCount());
+	}
+
+	private static PasswordHashingServiceImpl create(PasswordEncoder encoder, int threads, int queueCapacity) {
+		return create(encoder, threads, queueCapacity, Duration.ofSeconds(5));
+	}
+
+	private static PasswordHashingServiceImpl create(PasswordEncoder encoder, int threads, int queueCapacity, Duration timeout) {
+		PasswordHashingServiceImpl service = new PasswordHashingServiceImpl(encoder, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "threads", threads);
+		ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(service, "timeout", timeout);
+		service.init();
+		return service;
+	}
+
+	private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return rawPassword.toString();
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return rawPassword.toString().equals(encodedPassword);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.EXPT.ExpenseTracker.services.rollup;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RollupServiceImplTests {
+
+	@Test
+	void picksAnInsertIfAbsentStatementPerDatabase() {
+		assertTrue(RollupServiceImpl.insertIfAbsentSql("PostgreSQL").endsWith("ON CONFLICT (user_id) DO NOTHING"));
+		assertTrue(RollupServiceImpl.insertIfAbsentSql("MySQL").startsWith("INSERT IGNORE INTO user_balance"));
+		assertTrue(RollupServiceImpl.insertIfAbsentSql("MariaDB").startsWith("INSERT IGNORE INTO user_balance"));
+		assertTrue(RollupServiceImpl.insertIfAbsentSql("H2").startsWith("INSERT IGNORE INTO user_balance"));
+		assertThrows(IllegalStateException.class, () -> RollupServiceImpl.insertIfAbsentSql("SQLite"));
+	}
+}
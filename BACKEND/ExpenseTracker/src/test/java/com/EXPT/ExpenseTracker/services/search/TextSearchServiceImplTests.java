@@ -0,0 +1,172 @@
+package com.EXPT.ExpenseTracker.services.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.dto.LedgerEntryDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+import com.EXPT.ExpenseTracker.services.expense.ExpenseService;
+import com.EXPT.ExpenseTracker.services.importer.ImportService;
+import com.EXPT.ExpenseTracker.services.income.IncomeService;
+import com.EXPT.ExpenseTracker.util.LedgerFormat;
+import com.EXPT.ExpenseTracker.util.TextTokenizer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TextSearchServiceImplTests {
+
+	@Autowired
+	private TextSearchService textSearchService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private IncomeService incomeService;
+
+	@Autowired
+	private ImportService importService;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = users.saveAndLogin("search-user");
+	}
+
+	@AfterEach
+	void tearDown() {
+		users.cleanUp();
+	}
+
+	@Test
+	void matchesWholeWordsAndPrefixesBestFirst() {
+		ExpenseDTO order = expenseService.postExpense(expense("Amazon order", "Shopping", "two books"));
+		expenseService.postExpense(expense("Groceries", "Food", "ordered on amazon fresh"));
+		incomeService.postIncome(new IncomeDTO(null, "Amazon refund", 25, LocalDate.of(2024, 5, 2), "Refunds", null));
+
+		// title matches outrank description matches
+		assertEquals("Groceries", titles("amaz", null).get(2));
+		assertEquals(List.of("Amazon order", "Groceries"), titles("amazon ORDER", null));
+		assertEquals(List.of("Amazon refund"), titles("amazon", LedgerKind.INCOME));
+
+		LedgerEntryDTO hit = textSearchService.search("books", null, 10).get(0);
+		assertEquals("expense", hit.kind());
+		assertEquals(order.getId(), hit.id());
+	}
+
+	@Test
+	void prefixesEndingInZOrNineMatch() {
+		expenseService.postExpense(expense("Jazz club", "Fun", null));
+		expenseService.postExpense(expense("Invoice 2019", "Office", null));
+		expenseService.postExpense(expense("Invoice 2020", "Office", null));
+
+		// the last character is the one an incremented upper bound would get wrong
+		assertEquals(List.of("Jazz club"), titles("jaz", null));
+		assertEquals(List.of("Jazz club"), titles("jazz", null));
+		assertEquals(List.of("Invoice 2019"), titles("2019", null));
+		assertEquals(List.of("Invoice 2019"), titles("invoice 2019", null));
+	}
+
+	@Test
+	void writesKeepTheIndexCurrent() {
+		ExpenseDTO order = expenseService.postExpense(expense("Amazon order", "Shopping", null));
+		expenseService.postExpense(expense("Amazon prime", "Subscriptions", null));
+
+		expenseService.updateExpense(order.getId(), expense("Bookshop", "Shopping", null));
+		assertEquals(List.of("Amazon prime"), titles("amazon", null));
+		assertEquals(List.of("Bookshop"), titles("book", null));
+
+		expenseService.deleteExpense(order.getId());
+		assertEquals(List.of(), titles("book", null));
+	}
+
+	@Test
+	void rowsWrittenBehindItsBackAreIndexedOnFirstSearch() throws IOException {
+		Expense legacy = new Expense();
+		legacy.setTitle("Café Crème");
+		legacy.setAmount(4);
+		legacy.setDate(LocalDate.of(2020, 1, 1));
+		legacy.setUser(user);
+		expenseRepository.save(legacy);
+
+		assertEquals(List.of("Café Crème"), titles("cafe", null));
+
+		importService.importLedger(LedgerKind.EXPENSE, LedgerFormat.CSV, new ByteArrayInputStream(
+				"date,title,amount\n2024-01-01,Uber ride,12\n2024-01-02,Uber eats,20\n".getBytes(StandardCharsets.UTF_8)));
+		assertEquals(2, titles("uber", null).size());
+	}
+
+	@Test
+	void rejectsQueriesWithoutWords() {
+		assertThrows(IllegalArgumentException.class, () -> textSearchService.search("- ! a", null, 10));
+		assertThrows(IllegalArgumentException.class, () -> textSearchService.search("amazon", null, 0));
+	}
+
+	@Test
+	void tokenizerFoldsCaseAndAccents() {
+		assertEquals(List.of("cafe", "creme", "12"), TextTokenizer.tokenize("Café-Crème #12 a CAFE"));
+		assertEquals(List.of("strasse", "aegir", "oresund", "lodz", "2019"),
+				TextTokenizer.tokenize("Straße strasse STRASSE Ægir Øresund Łódź ٢٠١٩"));
+	}
+
+	@Test
+	void spellingsTheCollationEquatesShareOnePosting() {
+		ExpenseDTO street = expenseService.postExpense(expense("Straße strasse", "Parking", null));
+
+		assertEquals(List.of("Straße strasse"), titles("strasse", null));
+		assertEquals(List.of("Straße strasse"), titles("straße", null));
+		assertEquals(1, (int) jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM ledger_token WHERE entry_id = ? AND token LIKE 'stra%'", Integer.class, street.getId()));
+	}
+
+	@Test
+	void duplicatePostingsMergeInsteadOfFailing() {
+		assertTrue(TextSearchServiceImpl.insertPostingSql("MySQL").endsWith("ON DUPLICATE KEY UPDATE weight = weight + VALUES(weight)"));
+		assertTrue(TextSearchServiceImpl.insertPostingSql("PostgreSQL").contains("ON CONFLICT (user_id, token, kind, entry_id) DO UPDATE"));
+
+		String sql = TextSearchServiceImpl.insertPostingSql("H2");
+		jdbcTemplate.batchUpdate(sql, List.of(new Object[] { user.getId(), "strasse", "EXPENSE", 1L, 3 },
+				new Object[] { user.getId(), "strasse", "EXPENSE", 1L, 1 }));
+		assertEquals(4, (int) jdbcTemplate.queryForObject(
+				"SELECT weight FROM ledger_token WHERE user_id = ? AND entry_id = 1", Integer.class, user.getId()));
+	}
+
+	private List<String> titles(String query, LedgerKind kind) {
+		return textSearchService.search(query, kind, 10).stream().map(LedgerEntryDTO::title).toList();
+	}
+
+	private static ExpenseDTO expense(String title, String category, String description) {
+		return new ExpenseDTO(null, title, description, category, LocalDate.of(2024, 5, 1), 10);
+	}
+}
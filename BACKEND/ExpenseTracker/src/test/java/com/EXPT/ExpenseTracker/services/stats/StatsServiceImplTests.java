@@ -0,0 +1,282 @@
+package com.EXPT.ExpenseTracker.services.stats;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.EXPT.ExpenseTracker.dto.CategoryBreakdownDTO;
+import com.EXPT.ExpenseTracker.dto.CategoryShareDTO;
+import com.EXPT.ExpenseTracker.dto.ChartSeriesDTO;
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.dto.IncomeDTO;
+import com.EXPT.ExpenseTracker.dto.StatsDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.entity.LedgerKind;
+import com.EXPT.ExpenseTracker.entity.MonthlyTotal;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.entity.UserBalance;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.repository.MonthlyTotalRepository;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+import com.EXPT.ExpenseTracker.services.expense.ExpenseService;
+import com.EXPT.ExpenseTracker.services.income.IncomeService;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StatsServiceImplTests {
+
+	@Autowired
+	private StatsService statsService;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private MonthlyTotalRepository monthlyTotalRepository;
+
+	@Autowired
+	private IncomeService incomeService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = users.save("stats-user");
+		User other = users.save("stats-other");
+
+		saveIncome(user, "Salary", 5000, LocalDate.of(2024, 1, 31));
+		saveIncome(user, "Bonus", 1200, LocalDate.of(2024, 3, 15));
+		saveIncome(user, "Refund", 80, LocalDate.of(2024, 3, 15));
+		saveIncome(other, "Other salary", 99999, LocalDate.of(2025, 1, 1));
+
+		saveExpense(user, "Rent", 1500, LocalDate.of(2024, 2, 1));
+		saveExpense(user, "Groceries", 230, LocalDate.of(2024, 2, 20));
+		saveExpense(other, "Other rent", 7, LocalDate.of(2025, 1, 1));
+
+		users.login(user);
+	}
+
+	@AfterEach
+	void tearDown() {
+		users.cleanUp();
+	}
+
+	@Test
+	void aggregateModeMatchesScanMode() {
+		StatsDTO aggregate = statsIn("aggregate");
+		StatsDTO scan = statsIn("scan");
+
+		assertEquals(scan, aggregate);
+		assertEquals(6280.0, aggregate.getIncome());
+		assertEquals(1730.0, aggregate.getExpense());
+		assertEquals(4550.0, aggregate.getBalance());
+		assertEquals(80.0, aggregate.getMinIncome());
+		assertEquals(5000.0, aggregate.getMaxIncome());
+		assertEquals("Refund", aggregate.getLatestIncome().getTitle());
+		assertEquals("Groceries", aggregate.getLatestExpense().getTitle());
+	}
+
+	@Test
+	void emptyLedgerDefaultsToZero() {
+		incomeRepository.deleteAll();
+		expenseRepository.deleteAll();
+
+		StatsDTO aggregate = statsIn("aggregate");
+
+		assertEquals(statsIn("scan"), aggregate);
+		assertEquals(0.0, aggregate.getIncome());
+		assertEquals(0.0, aggregate.getMaxExpense());
+		assertNull(aggregate.getLatestIncome());
+	}
+
+	@Test
+	void rollupModeMatchesScanMode() {
+		assertEquals(statsIn("scan"), statsIn("rollup"));
+	}
+
+	@Test
+	void concurrentFirstReadsBuildOneBalanceRow() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<UserBalance>> reads = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				reads.add(executor.submit(() -> {
+					start.await();
+					return rollupService.getBalance(user.getId());
+				}));
+			}
+			start.countDown();
+			for (Future<UserBalance> read : reads) {
+				assertEquals(6280, read.get(30, TimeUnit.SECONDS).getIncome().getTotal());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1730, rollupService.rebuild(user.getId()).getExpense().getTotal());
+	}
+
+	@Test
+	void rollupFollowsServiceWrites() {
+		// first read builds the balance row from the existing data
+		statsIn("rollup");
+
+		ExpenseDTO car = expenseService.postExpense(new ExpenseDTO(null, "Car", null, "Transport", LocalDate.of(2024, 3, 20), 9000));
+		expenseService.postExpense(new ExpenseDTO(null, "Coffee", null, "Food", LocalDate.of(2024, 3, 21), 4));
+		IncomeDTO gift = incomeService.postIncome(new IncomeDTO(null, "Gift", 300, LocalDate.of(2024, 4, 2), "General", null));
+		assertEquals(statsIn("scan"), statsIn("rollup"));
+
+		// moving the latest income back in time and deleting the max expense both need a reload of the extremes
+		incomeService.updateIncome(gift.getId(), new IncomeDTO(null, "Gift", 350, LocalDate.of(2024, 1, 2), "General", null));
+		expenseService.deleteExpense(car.getId());
+		StatsDTO rollup = statsIn("rollup");
+
+		assertEquals(statsIn("scan"), rollup);
+		assertEquals("Refund", rollup.getLatestIncome().getTitle());
+		assertEquals(1500.0, rollup.getMaxExpense());
+
+		MonthlyTotal march = monthlyTotalRepository
+				.findById(new MonthlyTotal.Key(user.getId(), LedgerKind.EXPENSE, LocalDate.of(2024, 3, 1))).orElseThrow();
+		assertEquals(4, march.getTotal());
+		assertEquals(1, march.getCount());
+	}
+
+	@Test
+	void chartSeriesBucketsByMonth() {
+		ChartSeriesDTO series = statsService.getChartSeries("month", LocalDate.of(2024, 1, 10), LocalDate.of(2024, 4, 30));
+
+		assertEquals(LocalDate.of(2024, 1, 1), series.getFrom());
+		assertArrayEquals(new String[] { "2024-01", "2024-02", "2024-03", "2024-04" }, series.getLabels());
+		assertArrayEquals(new long[] { 5000, 0, 1280, 0 }, series.getIncome());
+		assertArrayEquals(new long[] { 0, 1730, 0, 0 }, series.getExpense());
+	}
+
+	@Test
+	void chartSeriesBucketsByDay() {
+		ChartSeriesDTO series = statsService.getChartSeries("day", LocalDate.of(2024, 3, 14), LocalDate.of(2024, 3, 16));
+
+		assertArrayEquals(new long[] { 0, 1280, 0 }, series.getIncome());
+		assertArrayEquals(new long[] { 0, 0, 0 }, series.getExpense());
+	}
+
+	private StatsDTO statsIn(String mode) {
+		Object target = AopTestUtils.getTargetObject(statsService);
+		ReflectionTestUtils.setField(target, "statsMode", mode);
+		return statsService.getStats();
+	}
+
+	@Test
+	void categoryBreakdownFoldsTailIntoOther() {
+		postExpense("Food", 40, LocalDate.of(2024, 2, 3));
+		postExpense("Food", 60, LocalDate.of(2024, 2, 5));
+		postExpense("Travel", 300, LocalDate.of(2024, 2, 10));
+		postExpense("Fun", 10, LocalDate.of(2024, 2, 11));
+		postExpense("Books", 20, LocalDate.of(2024, 3, 1));
+
+		CategoryBreakdownDTO breakdown = statsService.getCategoryBreakdown("expense", null, null, 2);
+
+		assertEquals(2160, breakdown.getTotal());
+		assertEquals(7, breakdown.getCount());
+		assertEquals(List.of("General", "Travel", "Other"),
+				breakdown.getCategories().stream().map(CategoryShareDTO::getCategory).toList());
+		CategoryShareDTO general = breakdown.getCategories().get(0);
+		assertEquals(1730, general.getTotal());
+		assertEquals(865.0, general.getAverage());
+		assertEquals(1730.0 / 2160, general.getShare(), 1e-9);
+		CategoryShareDTO other = breakdown.getCategories().get(2);
+		assertEquals(130, other.getTotal());
+		assertEquals(4, other.getCount());
+	}
+
+	@Test
+	void categoryBreakdownFlagsTheSyntheticEntries() {
+		expenseService.postExpense(new ExpenseDTO(null, "Misc", null, null, LocalDate.of(2024, 2, 3), 500));
+		postExpense("Other", 5, LocalDate.of(2024, 2, 5));
+		postExpense("Travel", 3, LocalDate.of(2024, 2, 10));
+		postExpense("Fun", 2, LocalDate.of(2024, 2, 11));
+
+		List<CategoryShareDTO> categories = statsService.getCategoryBreakdown("expense", null, null, 3).getCategories();
+
+		assertEquals(List.of("General", "Uncategorized", "Other", "Other"),
+				categories.stream().map(CategoryShareDTO::getCategory).toList());
+		assertEquals(List.of(false, true, false, false), categories.stream().map(CategoryShareDTO::isUncategorized).toList());
+		assertEquals(List.of(false, false, false, true), categories.stream().map(CategoryShareDTO::isOther).toList());
+		assertEquals(5, categories.get(2).getTotal());
+		assertEquals(5, categories.get(3).getTotal());
+		assertEquals(2, categories.get(3).getCount());
+	}
+
+	@Test
+	void categoryBreakdownHonoursWindow() {
+		postExpense("Food", 100, LocalDate.of(2024, 2, 5));
+		postExpense("Travel", 300, LocalDate.of(2024, 2, 10));
+		postExpense("Travel", 999, LocalDate.of(2024, 3, 10));
+
+		CategoryBreakdownDTO breakdown = statsService.getCategoryBreakdown("expense",
+				LocalDate.of(2024, 2, 2), LocalDate.of(2024, 2, 29), 8);
+
+		assertEquals(630, breakdown.getTotal());
+		assertEquals(List.of("Travel", "General", "Food"),
+				breakdown.getCategories().stream().map(CategoryShareDTO::getCategory).toList());
+		assertEquals(6280, statsService.getCategoryBreakdown("income", null, null, 8).getTotal());
+		assertThrows(IllegalArgumentException.class, () -> statsService.getCategoryBreakdown("savings", null, null, 8));
+	}
+
+	private void postExpense(String category, int amount, LocalDate date) {
+		expenseService.postExpense(new ExpenseDTO(null, category, null, category, date, amount));
+	}
+
+	private void saveIncome(User owner, String title, int amount, LocalDate date) {
+		Income income = new Income();
+		income.setTitle(title);
+		income.setAmount(amount);
+		income.setDate(date);
+		income.setCategory("General");
+		income.setUser(owner);
+		incomeRepository.save(income);
+	}
+
+	private void saveExpense(User owner, String title, int amount, LocalDate date) {
+		Expense expense = new Expense();
+		expense.setTitle(title);
+		expense.setAmount(amount);
+		expense.setDate(date);
+		expense.setCategory("General");
+		expense.setUser(owner);
+		expenseRepository.save(expense);
+	}
+}
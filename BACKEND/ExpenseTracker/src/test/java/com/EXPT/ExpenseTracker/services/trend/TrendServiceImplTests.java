@@ -0,0 +1,142 @@
+package com.EXPT.ExpenseTracker.services.trend;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.EXPT.ExpenseTracker.dto.TrendDTO;
+import com.EXPT.ExpenseTracker.dto.TrendPointDTO;
+import com.EXPT.ExpenseTracker.entity.Expense;
+import com.EXPT.ExpenseTracker.entity.Income;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.ExpenseRepository;
+import com.EXPT.ExpenseTracker.repository.IncomeRepository;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TrendServiceImplTests {
+
+	@Autowired
+	private TrendService trendService;
+
+	@Autowired
+	private IncomeRepository incomeRepository;
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	@BeforeEach
+	void setUp() {
+		User user = users.save("trend-user");
+
+		// inserted behind the rollups' back: the first trend read has to build them
+		saveIncome(user, 1000, LocalDate.of(2023, 6, 30));
+		saveIncome(user, 1000, LocalDate.of(2024, 1, 31));
+		saveIncome(user, 1300, LocalDate.of(2024, 3, 31));
+		saveExpense(user, 250, LocalDate.of(2024, 1, 3));
+		saveExpense(user, 150, LocalDate.of(2024, 1, 20));
+		saveExpense(user, 650, LocalDate.of(2024, 3, 5));
+
+		users.login(user);
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(trendService), "trendMode", "auto");
+		users.cleanUp();
+	}
+
+	@Test
+	void computesRollingAveragesAndChanges() {
+		List<TrendPointDTO> points = trendIn("window", YearMonth.of(2024, 1), YearMonth.of(2024, 3)).getPoints();
+
+		assertEquals(List.of("2024-01", "2024-02", "2024-03"), points.stream().map(TrendPointDTO::getMonth).toList());
+
+		TrendPointDTO january = points.get(0);
+		assertEquals(600, january.getNet());
+		assertEquals(0.6, january.getSavingsRate(), 1e-9);
+		assertNull(january.getIncomeChange());
+		// the June 2023 income is inside January's 12-month frame
+		assertEquals(2000 / 12.0, january.getIncomeAvg12(), 1e-9);
+
+		TrendPointDTO february = points.get(1);
+		assertEquals(0, february.getIncome());
+		assertNull(february.getSavingsRate());
+		assertEquals(-1.0, february.getIncomeChange(), 1e-9);
+
+		TrendPointDTO march = points.get(2);
+		assertEquals(2300 / 3.0, march.getIncomeAvg3(), 1e-9);
+		assertEquals(1050 / 3.0, march.getExpenseAvg3(), 1e-9);
+		assertEquals(3300 / 12.0, march.getIncomeAvg12(), 1e-9);
+		assertNull(march.getExpenseChange());
+	}
+
+	@Test
+	void windowAndStreamingAgree() {
+		YearMonth from = YearMonth.of(2023, 1);
+		YearMonth to = YearMonth.of(2024, 12);
+
+		assertEquals(trendIn("stream", from, to), trendIn("window", from, to));
+		assertEquals(trendIn("stream", from, to), trendIn("auto", from, to));
+	}
+
+	@Test
+	void rejectsBadRanges() {
+		assertThrows(IllegalArgumentException.class, () -> trendService.getTrend(YearMonth.of(2024, 3), YearMonth.of(2024, 1)));
+		assertThrows(IllegalArgumentException.class, () -> trendService.getTrend(YearMonth.of(2000, 1), YearMonth.of(2024, 1)));
+	}
+
+	@Test
+	void detectsWindowFunctionSupport() {
+		assertTrue(TrendServiceImpl.supportsWindowFunctions("PostgreSQL", 16, 2));
+		assertTrue(TrendServiceImpl.supportsWindowFunctions("MySQL", 8, 0));
+		assertFalse(TrendServiceImpl.supportsWindowFunctions("MySQL", 5, 7));
+		assertTrue(TrendServiceImpl.supportsWindowFunctions("MariaDB", 10, 6));
+		assertTrue(TrendServiceImpl.supportsWindowFunctions("H2", 2, 3));
+		assertFalse(TrendServiceImpl.supportsWindowFunctions("SQLite", 3, 45));
+	}
+
+	private TrendDTO trendIn(String mode, YearMonth from, YearMonth to) {
+		ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(trendService), "trendMode", mode);
+		return trendService.getTrend(from, to);
+	}
+
+	private void saveIncome(User owner, int amount, LocalDate date) {
+		Income income = new Income();
+		income.setTitle("Salary");
+		income.setAmount(amount);
+		income.setDate(date);
+		income.setCategory("General");
+		income.setUser(owner);
+		incomeRepository.save(income);
+	}
+
+	private void saveExpense(User owner, int amount, LocalDate date) {
+		Expense expense = new Expense();
+		expense.setTitle("Spend");
+		expense.setAmount(amount);
+		expense.setDate(date);
+		expense.setCategory("General");
+		expense.setUser(owner);
+		expenseRepository.save(expense);
+	}
+}
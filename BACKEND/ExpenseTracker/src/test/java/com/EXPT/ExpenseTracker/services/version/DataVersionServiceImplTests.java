@@ -0,0 +1,96 @@
+package com.EXPT.ExpenseTracker.services.version;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.EXPT.ExpenseTracker.dto.ExpenseDTO;
+import com.EXPT.ExpenseTracker.entity.User;
+import com.EXPT.ExpenseTracker.repository.UserBalanceRepository;
+import com.EXPT.ExpenseTracker.services.CustomUserDetailsService;
+import com.EXPT.ExpenseTracker.services.TestLedgerUsers;
+import com.EXPT.ExpenseTracker.services.expense.ExpenseService;
+import com.EXPT.ExpenseTracker.services.rollup.RollupService;
+
+@SpringBootTest(properties = "data-version.store=database")
+@ActiveProfiles("test")
+class DataVersionServiceImplTests {
+
+	@Autowired
+	private DataVersionService dataVersionService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private RollupService rollupService;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private UserBalanceRepository balanceRepository;
+
+	@Autowired
+	private TestLedgerUsers users;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = users.saveAndLogin("version-user");
+	}
+
+	@AfterEach
+	void tearDown() {
+		users.cleanUp();
+	}
+
+	@Test
+	void writesBumpTheVersionEveryInstanceSees() {
+		ExpenseDTO coffee = expenseService.postExpense(expense(4));
+		long version = dataVersionService.getVersion(user.getId());
+		String etag = dataVersionService.currentETag(null);
+
+		// a second instance shares nothing with this one but the database
+		DataVersionServiceImpl other = new DataVersionServiceImpl(userDetailsService, balanceRepository, rollupService, transactionTemplate);
+		ReflectionTestUtils.setField(other, "store", "database");
+		assertEquals(version, other.getVersion(user.getId()));
+		assertEquals(etag, other.currentETag(null));
+
+		expenseService.updateExpense(coffee.getId(), expense(5));
+		expenseService.deleteExpense(coffee.getId());
+		assertEquals(version + 2, other.getVersion(user.getId()));
+		// the totals saved by those writes left the counter alone
+		assertEquals(0, rollupService.getBalance(user.getId()).getExpense().getTotal());
+	}
+
+	@Test
+	void rolledBackWriteKeepsTheVersion() {
+		expenseService.postExpense(expense(4));
+		long version = dataVersionService.getVersion(user.getId());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			expenseService.postExpense(expense(6));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(version, dataVersionService.getVersion(user.getId()));
+	}
+
+	private static ExpenseDTO expense(int amount) {
+		return new ExpenseDTO(null, "Coffee", null, "Food", LocalDate.of(2025, 1, 15), amount);
+	}
+}
@@ -0,0 +1,36 @@
+package com.EXPT.ExpenseTracker.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiringCacheTests {
+
+	@Test
+	void evictsLeastRecentlyUsedEntry() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, 60_000);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.get("a");
+		cache.put("c", 3);
+
+		assertEquals(1, cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(3, cache.get("c"));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	void expiredEntriesAreMisses() {
+		ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, 60_000);
+		cache.put("old", 1, System.currentTimeMillis() - 1);
+		cache.put("fresh", 2);
+
+		assertNull(cache.get("old"));
+		assertEquals(2, cache.get("fresh"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.size());
+	}
+}
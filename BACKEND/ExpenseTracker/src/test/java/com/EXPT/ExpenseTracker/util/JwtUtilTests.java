@@ -0,0 +1,63 @@
+package com.EXPT.ExpenseTracker.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtUtilTests {
+
+	private JwtUtil jwtUtil;
+
+	private final UserDetails alice = new User("alice", "x", List.of());
+
+	@BeforeEach
+	void setUp() {
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "testSecretKeyForJWTTokenGenerationAndValidation123");
+		ReflectionTestUtils.setField(jwtUtil, "JWT_EXPIRATION", 60_000L);
+		ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", 100);
+		ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+		jwtUtil.init();
+	}
+
+	@Test
+	void parsesOnceAndServesRepeatsFromCache() {
+		String token = jwtUtil.generateToken(alice);
+
+		Claims first = jwtUtil.parseToken(token);
+		Claims second = jwtUtil.parseToken(token);
+
+		assertEquals("alice", first.getSubject());
+		assertSame(first, second);
+		assertTrue(jwtUtil.validateToken(token, alice));
+	}
+
+	@Test
+	void rejectsTamperedToken() {
+		String token = jwtUtil.generateToken(alice);
+		String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+		assertThrows(JwtException.class, () -> jwtUtil.parseToken(tampered));
+	}
+
+	@Test
+	void rejectsExpiredToken() {
+		ReflectionTestUtils.setField(jwtUtil, "JWT_EXPIRATION", -1_000L);
+		String token = jwtUtil.generateToken(alice);
+
+		assertThrows(JwtException.class, () -> jwtUtil.parseToken(token));
+	}
+}